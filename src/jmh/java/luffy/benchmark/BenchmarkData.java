@@ -0,0 +1,78 @@
+package luffy.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+import luffy.task.Deadline;
+import luffy.task.Event;
+import luffy.task.Priority;
+import luffy.task.Task;
+import luffy.task.TaskList;
+import luffy.task.Todo;
+
+/**
+ * Builds the task lists used by the benchmarks. The tasks are drawn from a fixed seed, so every
+ * run and every commit measures the same data.
+ */
+final class BenchmarkData {
+    static final long SEED = 20240101L;
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final int DAYS_SPANNED = 365;
+
+    static final String[] WORDS = {
+        "read", "book", "submit", "report", "team", "meeting", "buy", "groceries", "call", "mom",
+        "review", "pull", "request", "assignment", "lecture", "project", "plan", "trip", "pay",
+        "bills", "gym", "session", "dentist", "appointment", "lunch", "with", "friends", "exam"
+    };
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a task list of the given size with an even mix of todos, deadlines and events.
+     *
+     * @param count the number of tasks
+     * @return the task list
+     */
+    static TaskList createTaskList(int count) {
+        return new TaskList(createTasks(count));
+    }
+
+    /**
+     * Creates the given number of tasks with an even mix of todos, deadlines and events. About a
+     * third of the tasks are done, and one event in ten spans several days.
+     *
+     * @param count the number of tasks
+     * @return the tasks
+     */
+    static ArrayList<Task> createTasks(int count) {
+        Random random = new Random(SEED);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)];
+            LocalDateTime date = START.plusMinutes(random.nextInt(DAYS_SPANNED * 24 * 60));
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = new Todo(description);
+                break;
+            case 1:
+                task = new Deadline(description, date);
+                break;
+            default:
+                int hours = random.nextInt(10) == 0
+                        ? 24 + random.nextInt(72)
+                        : 1 + random.nextInt(3);
+                task = new Event(description, date, date.plusHours(hours));
+                break;
+            }
+            task.setDone(random.nextInt(3) == 0);
+            task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
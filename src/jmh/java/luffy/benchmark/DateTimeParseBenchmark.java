@@ -0,0 +1,36 @@
+package luffy.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import luffy.exception.LuffyException;
+import luffy.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a date and time in each supported format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DateTimeParseBenchmark {
+    @Param({"2024-12-01", "2024-12-01 1800", "2024-12-01 18:00", "2024-12-01 6:00 PM",
+        "1/12/2024", "1/12/2024 1800", "1/12/2024 18:00", "1/12/2024 6:00 PM"})
+    public String dateTime;
+
+    @Benchmark
+    public LocalDateTime parseDateTime() throws LuffyException {
+        return Parser.parseDateTime(dateTime);
+    }
+}
@@ -0,0 +1,80 @@
+package luffy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import luffy.command.Command;
+import luffy.exception.LuffyException;
+import luffy.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a typical command of each type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+    @Param({"todo", "deadline", "event", "list", "mark", "unmark", "delete", "find", "due",
+        "priority"})
+    public String commandType;
+
+    private String input;
+
+    /**
+     * Picks a typical input for the command type being measured.
+     */
+    @Setup
+    public void setUp() {
+        switch (commandType) {
+        case "todo":
+            input = "todo read the CS2103T textbook";
+            break;
+        case "deadline":
+            input = "deadline submit report /by 2024-12-01 6:00 PM";
+            break;
+        case "event":
+            input = "event team meeting /from 2024-12-01 10:00 /to 2024-12-01 12:00";
+            break;
+        case "list":
+            input = "list";
+            break;
+        case "mark":
+            input = "mark 3";
+            break;
+        case "unmark":
+            input = "unmark #12";
+            break;
+        case "delete":
+            input = "delete 3,7,10-25";
+            break;
+        case "find":
+            input = "find book report /limit 20 /page 2";
+            break;
+        case "due":
+            input = "due 2024-12-01";
+            break;
+        case "priority":
+            input = "priority 4 HIGH";
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown command type: " + commandType);
+        }
+    }
+
+    @Benchmark
+    public Command parse() throws LuffyException {
+        return Parser.parse(input);
+    }
+}
@@ -0,0 +1,254 @@
+package luffy.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Random;
+import luffy.task.Priority;
+import luffy.util.DateTimeUtil;
+
+/**
+ * Writes large synthetic data files for load and scale testing. Every line is a todo, deadline or
+ * event record in one of the formats that Storage.load understands:
+ *
+ * - current: "D#12 | 0 | HIGH | submit report | 2024-03-01T18:00", with an ID, a priority and
+ *   ISO dates.
+ * - string dates: as current, but with the dates kept as free text, as in
+ *   "D#12 | 0 | HIGH | submit report | Sunday 6pm".
+ * - legacy: the oldest format, with no ID and no priority and free-text dates, as in
+ *   "T | 1 | read book" or "E | 0 | team meeting | Mon 2pm to 4pm".
+ *
+ * The mix of task types and formats is given as ratios, and a share of the lines can be corrupted
+ * in ways the loader rejects. The lines are drawn from a fixed seed, so the same options always
+ * produce the same file.
+ */
+public class TaskFileGenerator {
+    static final long DEFAULT_SEED = 42L;
+    static final int DEFAULT_COUNT = 1_000_000;
+
+    private static final String USAGE = "Usage: OUTPUT_FILE [--count N] [--seed N]"
+            + " [--types TODO:DEADLINE:EVENT] [--formats CURRENT:STRING_DATES:LEGACY]"
+            + " [--corrupt RATE]";
+    private static final String SEPARATOR = " | ";
+    private static final String[] DAYS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Saturday", "Sunday"};
+    private static final String[] CORRUPTED_LINES = {
+        "X | 0 | NORMAL | unknown task type",
+        "T | done | NORMAL | status is not a number",
+        "D | 0",
+        "E | 0 | NORMAL | bad dates | not-a-date | 2024-01-01T12:00",
+        "T#abc | 0 | NORMAL | ID is not a number",
+        "E | 1 | NORMAL | duration without separator | all day"
+    };
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final Random random;
+    private final double[] typeWeights;
+    private final double[] formatWeights;
+    private final double corruptionRate;
+    private int nextId = 1;
+
+    /**
+     * Creates a generator with the given seed, mix of task types and formats, and corruption rate.
+     *
+     * @param seed the seed of the random lines
+     * @param typeWeights the relative numbers of todos, deadlines and events
+     * @param formatWeights the relative numbers of current, string-date and legacy lines
+     * @param corruptionRate the probability, from 0 to 1, that a line is corrupted
+     */
+    public TaskFileGenerator(long seed, double[] typeWeights, double[] formatWeights,
+            double corruptionRate) {
+        assert typeWeights.length == 3 : "There are three task types";
+        assert formatWeights.length == 3 : "There are three formats";
+        assert corruptionRate >= 0 && corruptionRate <= 1 : "Corruption rate must be from 0 to 1";
+        this.random = new Random(seed);
+        this.typeWeights = typeWeights;
+        this.formatWeights = formatWeights;
+        this.corruptionRate = corruptionRate;
+    }
+
+    /**
+     * Writes the given number of lines to a file, creating its directory if needed.
+     *
+     * @param path the file to write
+     * @param count the number of lines
+     * @return the number of corrupted lines written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path path, int count) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        int corruptedCount = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                line.setLength(0);
+                if (random.nextDouble() < corruptionRate) {
+                    line.append(CORRUPTED_LINES[random.nextInt(CORRUPTED_LINES.length)]);
+                    corruptedCount++;
+                } else {
+                    appendTask(line);
+                }
+                writer.append(line).append('\n');
+            }
+        }
+        return corruptedCount;
+    }
+
+    /**
+     * Appends a valid record of a randomly chosen type and format.
+     */
+    private void appendTask(StringBuilder line) {
+        int type = pick(typeWeights);
+        int format = pick(formatWeights);
+        boolean isLegacy = format == 2;
+        boolean hasIsoDates = format == 0;
+
+        line.append(type == 0 ? 'T' : type == 1 ? 'D' : 'E');
+        if (!isLegacy) {
+            line.append('#').append(nextId++);
+        }
+        line.append(SEPARATOR).append(random.nextInt(3) == 0 ? 1 : 0);
+        if (!isLegacy) {
+            line.append(SEPARATOR).append(PRIORITIES[random.nextInt(PRIORITIES.length)].name());
+        }
+        line.append(SEPARATOR);
+        appendDescription(line);
+
+        LocalDateTime date = BenchmarkData.START.plusMinutes(
+                random.nextInt(BenchmarkData.DAYS_SPANNED * 24 * 60));
+        if (type == 1) {
+            line.append(SEPARATOR);
+            appendDate(line, date, hasIsoDates);
+        } else if (type == 2) {
+            LocalDateTime end = date.plusHours(1 + random.nextInt(3));
+            line.append(SEPARATOR);
+            appendDate(line, date, hasIsoDates);
+            line.append(hasIsoDates ? SEPARATOR : " to ");
+            appendDate(line, end, hasIsoDates);
+        }
+    }
+
+    private void appendDescription(StringBuilder line) {
+        String[] words = BenchmarkData.WORDS;
+        line.append(words[random.nextInt(words.length)]).append(' ')
+                .append(words[random.nextInt(words.length)]).append(' ')
+                .append(words[random.nextInt(words.length)]);
+    }
+
+    /**
+     * Appends the date in ISO format, or as free text such as "Sunday 6pm".
+     */
+    private void appendDate(StringBuilder line, LocalDateTime date, boolean isIso) {
+        if (isIso) {
+            line.append(DateTimeUtil.formatDateTimeForFile(date));
+            return;
+        }
+        int hour = date.getHour() % 12 == 0 ? 12 : date.getHour() % 12;
+        line.append(DAYS[date.getDayOfWeek().ordinal()]).append(' ').append(hour)
+                .append(date.getHour() < 12 ? "am" : "pm");
+    }
+
+    /**
+     * Picks an index with probability proportional to its weight.
+     */
+    private int pick(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Parses ratios such as "8:1:1" into three non-negative weights that are not all zero.
+     */
+    private static double[] parseRatios(String text) {
+        String[] parts = text.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected three ratios like 1:1:1, got " + text);
+        }
+        double[] weights = new double[3];
+        double total = 0;
+        for (int i = 0; i < 3; i++) {
+            weights[i] = Double.parseDouble(parts[i]);
+            if (!(weights[i] >= 0)) {
+                throw new IllegalArgumentException("Ratios cannot be negative: " + text);
+            }
+            total += weights[i];
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Ratios cannot all be zero: " + text);
+        }
+        return weights;
+    }
+
+    /**
+     * Writes a data file with the options given on the command line and prints how many lines
+     * were written. Exits with status 2 if the options are invalid.
+     *
+     * @param args the output file, followed by any of the options in the usage message
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 != 1) {
+            System.out.println(USAGE);
+            System.exit(2);
+        }
+        int count = DEFAULT_COUNT;
+        long seed = DEFAULT_SEED;
+        double[] typeWeights = {1, 1, 1};
+        double[] formatWeights = {8, 1, 1};
+        double corruptionRate = 0;
+        try {
+            for (int i = 1; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                case "--count":
+                    count = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--types":
+                    typeWeights = parseRatios(value);
+                    break;
+                case "--formats":
+                    formatWeights = parseRatios(value);
+                    break;
+                case "--corrupt":
+                    corruptionRate = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (count < 0 || !(corruptionRate >= 0 && corruptionRate <= 1)) {
+                throw new IllegalArgumentException("The count cannot be negative and the"
+                        + " corruption rate must be from 0 to 1");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(USAGE);
+            System.exit(2);
+        }
+
+        Path path = Paths.get(args[0]);
+        int corruptedCount = new TaskFileGenerator(seed, typeWeights, formatWeights,
+                corruptionRate).write(path, count);
+        System.out.println("Wrote " + count + " lines (" + corruptedCount + " corrupted) to "
+                + path.toAbsolutePath().normalize());
+    }
+}
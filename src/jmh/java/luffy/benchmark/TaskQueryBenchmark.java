@@ -0,0 +1,128 @@
+package luffy.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import luffy.command.FindCommand;
+import luffy.task.Task;
+import luffy.task.TaskList;
+import luffy.ui.GuiUi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the find and due lookups, and rendering the whole list, on task lists of several sizes.
+ * The two-keyword finds match few tasks; the single-keyword finds match about one task in ten.
+ * The delete benchmarks measure a lookup on a list that has just lost its first task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskQueryBenchmark {
+    private static final LocalDateTime TARGET_DATE = BenchmarkData.START.plusDays(180);
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private TaskList tasks;
+    private GuiUi ui;
+    private FindCommand findAll;
+    private FindCommand findPage;
+    private FindCommand findRankedPage;
+    private FindCommand findCommon;
+    private FindCommand findCommonPage;
+
+    /**
+     * Builds the task list and the find commands.
+     */
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.createTaskList(taskCount);
+        ui = new GuiUi();
+        String[] keywords = {"book", "report"};
+        findAll = new FindCommand(keywords);
+        findPage = new FindCommand(keywords, FindCommand.DEFAULT_PAGE_SIZE, 1, false);
+        findRankedPage = new FindCommand(keywords, FindCommand.DEFAULT_PAGE_SIZE, 1, true);
+        String[] commonKeyword = {"book"};
+        findCommon = new FindCommand(commonKeyword);
+        findCommonPage = new FindCommand(commonKeyword, FindCommand.DEFAULT_PAGE_SIZE, 1, false);
+    }
+
+    @Benchmark
+    public String find() {
+        findAll.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+
+    @Benchmark
+    public String findPage() {
+        findPage.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+
+    @Benchmark
+    public String findRankedPage() {
+        findRankedPage.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+
+    @Benchmark
+    public String findCommon() {
+        findCommon.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+
+    @Benchmark
+    public String findCommonPage() {
+        findCommonPage.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+
+    @Benchmark
+    public ArrayList<Task> getTasksOnDate() {
+        return tasks.getTasksOnDate(TARGET_DATE);
+    }
+
+    @Benchmark
+    public String showTaskList() {
+        ui.showTaskList(tasks);
+        return ui.getResponse();
+    }
+
+    /**
+     * Deletes the first task and runs due. The task is added back at the end of the list, so the
+     * list keeps its size across invocations and every task is moved once in a while.
+     *
+     * @return the tasks due on the target date
+     */
+    @Benchmark
+    public ArrayList<Task> deleteThenGetTasksOnDate() {
+        tasks.add(tasks.remove(0));
+        return tasks.getTasksOnDate(TARGET_DATE);
+    }
+
+    /**
+     * Deletes the first task and runs find, adding the task back as in
+     * {@link #deleteThenGetTasksOnDate()}.
+     *
+     * @return the response listing the matching tasks
+     */
+    @Benchmark
+    public String deleteThenFind() {
+        tasks.add(tasks.remove(0));
+        findAll.execute(tasks, ui, null);
+        return ui.getResponse();
+    }
+}
@@ -8,11 +8,18 @@ import javafx.application.Application;
  */
 public class Launcher {
     /**
-     * Main entry point for the JavaFX GUI version of Luffy.
+     * Main entry point for the JavaFX GUI version of Luffy. Given the batch option, runs a command
+     * script on the command line instead of starting the GUI. The batch option may follow the
+     * durability option.
      *
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        String[] remainingArgs = Luffy.skipDurabilityOption(args);
+        if (remainingArgs.length > 0 && remainingArgs[0].equals(Luffy.BATCH_OPTION)) {
+            Luffy.main(args);
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
@@ -1,14 +1,27 @@
 package luffy;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
 import luffy.task.TaskList;
+import luffy.storage.DurabilityPolicy;
 import luffy.storage.Storage;
 import luffy.ui.Ui;
 import luffy.ui.GuiUi;
 import luffy.parser.Parser;
 import luffy.command.Command;
+import luffy.command.StatsCommand;
 import luffy.exception.LuffyException;
+import luffy.metrics.CommandEvent;
+import luffy.metrics.CommandMetrics;
 
 /**
  * Main class for the Luffy task management application. This class orchestrates the interaction
@@ -16,27 +29,67 @@ import luffy.exception.LuffyException;
  * using the Command pattern to process user input.
  */
 public class Luffy {
+    public static final String BATCH_OPTION = "--batch";
+    public static final String DURABILITY_OPTION = "--durability";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String FILE_ERROR_PREFIX =
+            "OOPS!!! Something went wrong with file operations: ";
+    private static final String METRICS_SUFFIX = ".metrics";
+
     private TaskList tasks;
     private Storage storage;
     private Ui ui;
+    private CommandMetrics metrics;
 
     /**
      * Creates a new Luffy application instance with the specified file path for data storage.
-     * Initializes the UI, storage, and attempts to load existing tasks from the file. If loading
-     * fails, starts with an empty task list and shows an error message.
+     * Initializes the UI, storage (in journaled mode), and attempts to load existing tasks from the
+     * file. If loading fails, starts with an empty task list and shows an error message. Tasks
+     * loaded from an older file without IDs are saved again at once, so that the IDs they are
+     * given stay the same across restarts. Journal records are written before each command returns.
      *
      * @param filePath the path to the file where tasks will be stored
      */
     public Luffy(String filePath) {
+        this(filePath, DurabilityPolicy.SYNCHRONOUS);
+    }
+
+    /**
+     * Creates a new Luffy application instance like Luffy(String), persisting journal records as
+     * set by the given durability policy.
+     *
+     * @param filePath the path to the file where tasks will be stored
+     * @param durabilityPolicy how journal records are persisted
+     */
+    public Luffy(String filePath, DurabilityPolicy durabilityPolicy) {
         assert filePath != null : "File path cannot be null";
+        assert durabilityPolicy != null : "Durability policy cannot be null";
         ui = new Ui();
+        metrics = new CommandMetrics();
         storage = new Storage(filePath);
+        storage.setJournalEnabled(true);
+        try {
+            storage.setDurabilityPolicy(durabilityPolicy);
+        } catch (IOException e) {
+            ui.showError(FILE_ERROR_PREFIX + e.getMessage());
+        }
         try {
+            long start = System.nanoTime();
             tasks = new TaskList(storage.load());
+            metrics.recordLoad(System.nanoTime() - start, tasks.size(),
+                    new File(filePath).length());
         } catch (IOException e) {
             ui.showLoadingError();
             tasks = new TaskList();
         }
+        if (tasks.hasNewIds()) {
+            try {
+                // The journal refers to tasks by position, so only a full save keeps the new IDs
+                storage.save(tasks.getTasks());
+            } catch (IOException e) {
+                ui.showError(FILE_ERROR_PREFIX + e.getMessage());
+            }
+        }
     }
 
     /**
@@ -51,18 +104,165 @@ public class Luffy {
             try {
                 String fullCommand = ui.readCommand();
                 ui.showLine(); // show the divider line ("_______")
-                Command c = Parser.parse(fullCommand);
-                c.execute(tasks, ui, storage);
+                Command c = parseAndExecute(fullCommand, ui);
                 isExit = c.isExit();
             } catch (LuffyException e) {
                 ui.showError(e.getMessage());
             } catch (IOException e) {
-                ui.showError(
-                        "OOPS!!! Something went wrong with file operations: " + e.getMessage());
+                ui.showError(FILE_ERROR_PREFIX + e.getMessage());
             } finally {
                 ui.showLine();
             }
         }
+
+        try {
+            storage.flush();
+            writeMetrics();
+        } catch (IOException e) {
+            ui.showError(FILE_ERROR_PREFIX + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses and executes a command, recording how long each step took in the metrics and
+     * emitting a Flight Recorder event that spans the whole command. A stats command is given the
+     * metrics of this instance to show.
+     *
+     * @param input the user's input command
+     * @param commandUi the user interface the command shows its output on
+     * @return the executed command
+     * @throws LuffyException if the command is invalid or fails
+     * @throws IOException if the command's changes cannot be saved
+     */
+    private Command parseAndExecute(String input, Ui commandUi)
+            throws LuffyException, IOException {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long allocatedBefore = CommandMetrics.getAllocatedBytes();
+        long start = System.nanoTime();
+        Command c;
+        try {
+            c = Parser.parse(input);
+        } catch (LuffyException e) {
+            metrics.recordParse(CommandMetrics.INVALID_TYPE, System.nanoTime() - start);
+            commitEvent(event, CommandMetrics.INVALID_TYPE, CommandEvent.INVALID);
+            throw e;
+        }
+        long parsed = System.nanoTime();
+        String type = CommandMetrics.typeOf(c);
+        metrics.recordParse(type, parsed - start);
+        if (c instanceof StatsCommand) {
+            ((StatsCommand) c).setMetrics(metrics);
+        }
+
+        long writeNanosBefore = storage.getWriteNanos();
+        long bytesWrittenBefore = storage.getBytesWritten();
+        String outcome = CommandEvent.FAILED;
+        try {
+            c.execute(tasks, commandUi, storage);
+            outcome = CommandEvent.SUCCEEDED;
+        } catch (IOException e) {
+            outcome = CommandEvent.IO_FAILED;
+            throw e;
+        } finally {
+            long allocatedAfter = CommandMetrics.getAllocatedBytes();
+            metrics.recordExecution(type, System.nanoTime() - parsed,
+                    storage.getWriteNanos() - writeNanosBefore,
+                    storage.getBytesWritten() - bytesWrittenBefore,
+                    allocatedBefore == CommandMetrics.UNAVAILABLE ? CommandMetrics.UNAVAILABLE
+                            : allocatedAfter - allocatedBefore,
+                    outcome.equals(CommandEvent.SUCCEEDED));
+            commitEvent(event, type, outcome);
+        }
+        return c;
+    }
+
+    /**
+     * Ends a command's Flight Recorder event and commits it, if it is enabled.
+     */
+    private void commitEvent(CommandEvent event, String type, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.taskCount = tasks.size();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes the metrics collected so far to a file next to the data file, replacing any earlier
+     * metrics file. Called when the application exits.
+     *
+     * @throws IOException if the metrics file cannot be written
+     */
+    public void writeMetrics() throws IOException {
+        metrics.writeReport(storage.getFilePath() + METRICS_SUFFIX);
+    }
+
+    /**
+     * Runs every command in a script file, one command per line, and prints a summary of the
+     * commands that succeeded and failed. Blank lines and lines starting with '#' are skipped, and
+     * a bye command ends the script early. Unlike run, the output is buffered and written without
+     * divider lines, and the changes of the whole script are saved to the data file once at the
+     * end rather than after every command.
+     *
+     * @param scriptPath the path of the script file
+     * @return the number of commands that failed, counting an unreadable script as one failure
+     */
+    public int runBatch(String scriptPath) {
+        assert scriptPath != null : "Script path cannot be null";
+        PrintWriter output =
+                new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        GuiUi batchUi = new GuiUi();
+        ArrayList<String> failures = new ArrayList<>();
+        int successCount = 0;
+
+        storage.beginBatch();
+        try (BufferedReader script = Files.newBufferedReader(Paths.get(scriptPath))) {
+            int lineNumber = 0;
+            boolean isExit = false;
+            String line;
+            while (!isExit && (line = script.readLine()) != null) {
+                lineNumber++;
+                String input = line.trim();
+                if (input.isEmpty() || input.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                try {
+                    Command c = parseAndExecute(input, batchUi);
+                    isExit = c.isExit();
+                    output.println(batchUi.getResponse());
+                    successCount++;
+                } catch (LuffyException e) {
+                    batchUi.getResponse(); // Drop any output of the failed command
+                    failures.add("Line " + lineNumber + ": " + e.getMessage());
+                    output.println(failures.get(failures.size() - 1));
+                } catch (IOException e) {
+                    batchUi.getResponse();
+                    failures.add("Line " + lineNumber + ": " + FILE_ERROR_PREFIX + e.getMessage());
+                    output.println(failures.get(failures.size() - 1));
+                }
+            }
+        } catch (IOException e) {
+            failures.add("Could not read the script " + scriptPath + ": " + e);
+        }
+
+        try {
+            storage.endBatch(tasks.getTasks());
+            storage.flush();
+            writeMetrics();
+        } catch (IOException e) {
+            failures.add(FILE_ERROR_PREFIX + e.getMessage());
+        }
+
+        output.println("Ran " + scriptPath + ": " + successCount + " succeeded, "
+                + failures.size() + " failed.");
+        for (String failure : failures) {
+            output.println(failure);
+        }
+        output.flush();
+        return failures.size();
     }
 
     /**
@@ -75,25 +275,78 @@ public class Luffy {
     public String getResponse(String input) {
         assert input != null : "User input cannot be null";
         try {
-            Command c = Parser.parse(input);
             // Create a GUI-friendly UI that captures output instead of printing to console
             GuiUi guiUi = new GuiUi();
-            c.execute(tasks, guiUi, storage);
+            parseAndExecute(input, guiUi);
             return guiUi.getResponse();
         } catch (LuffyException e) {
             return e.getMessage();
         } catch (IOException e) {
-            return "OOPS!!! Something went wrong with file operations: " + e.getMessage();
+            return FILE_ERROR_PREFIX + e.getMessage();
         }
     }
 
+    /**
+     * Returns the durability policy named by "--durability POLICY" at the start of the command
+     * line arguments. The policy name is case-insensitive and may use "-" in place of "_".
+     *
+     * @param args command line arguments
+     * @return the named policy, or SYNCHRONOUS if the arguments do not start with the option
+     * @throws IllegalArgumentException if the option is not followed by the name of a policy
+     */
+    public static DurabilityPolicy parseDurabilityPolicy(String[] args) {
+        if (args.length == 0 || !args[0].equals(DURABILITY_OPTION)) {
+            return DurabilityPolicy.SYNCHRONOUS;
+        }
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Missing policy after " + DURABILITY_OPTION);
+        }
+        return DurabilityPolicy.valueOf(args[1].toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Returns the command line arguments that follow the durability option, if they start with it.
+     *
+     * @param args command line arguments
+     * @return the arguments without the durability option and its policy
+     */
+    public static String[] skipDurabilityOption(String[] args) {
+        if (args.length == 0 || !args[0].equals(DURABILITY_OPTION)) {
+            return args;
+        }
+        return Arrays.copyOfRange(args, Math.min(2, args.length), args.length);
+    }
+
     /**
      * Main entry point for the Luffy application. Creates a new Luffy instance with the default
-     * data file path and starts the application.
+     * data file path and starts the application. Given "--batch SCRIPT_FILE", runs the commands in
+     * the script instead and exits with status 1 if any of them failed. Either can be preceded by
+     * "--durability POLICY" to choose how journaled changes are persisted.
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments: optionally the durability option and a policy, then
+     *     either nothing or the batch option and a script path
      */
     public static void main(String[] args) {
-        new Luffy("data" + File.separator + "Luffy.txt").run();
+        DurabilityPolicy durabilityPolicy = null;
+        try {
+            durabilityPolicy = parseDurabilityPolicy(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Usage: " + DURABILITY_OPTION + " "
+                    + Arrays.toString(DurabilityPolicy.values()) + " [" + BATCH_OPTION
+                    + " SCRIPT_FILE]");
+            System.exit(2);
+        }
+        String dataPath = "data" + File.separator + "Luffy.txt";
+        args = skipDurabilityOption(args);
+
+        if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+            if (args.length != 2) {
+                System.out.println("Usage: " + BATCH_OPTION + " SCRIPT_FILE");
+                System.exit(2);
+            }
+            int failureCount = new Luffy(dataPath, durabilityPolicy).runBatch(args[1]);
+            System.exit(failureCount == 0 ? 0 : 1);
+        }
+        new Luffy(dataPath, durabilityPolicy).run();
     }
 }
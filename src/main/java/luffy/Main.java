@@ -8,13 +8,31 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import luffy.storage.DurabilityPolicy;
 
 /**
  * A GUI for Luffy using FXML.
  */
 public class Main extends Application {
 
-    private Luffy luffy = new Luffy("data" + File.separator + "Luffy.txt");
+    private Luffy luffy;
+
+    /**
+     * Creates the Luffy instance, with the durability policy given on the command line if any.
+     */
+    @Override
+    public void init() {
+        String[] args = getParameters().getRaw().toArray(new String[0]);
+        DurabilityPolicy durabilityPolicy;
+        try {
+            durabilityPolicy = Luffy.parseDurabilityPolicy(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("OOPS!!! Unknown durability policy, using "
+                    + DurabilityPolicy.SYNCHRONOUS);
+            durabilityPolicy = DurabilityPolicy.SYNCHRONOUS;
+        }
+        luffy = new Luffy("data" + File.separator + "Luffy.txt", durabilityPolicy);
+    }
 
     @Override
     public void start(Stage stage) {
@@ -33,4 +51,16 @@ public class Main extends Application {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Writes the metrics of the session when the window is closed.
+     */
+    @Override
+    public void stop() {
+        try {
+            luffy.writeMetrics();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
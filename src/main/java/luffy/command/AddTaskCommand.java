@@ -26,7 +26,8 @@ public abstract class AddTaskCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LuffyException, IOException {
         Task task = createTask();
         tasks.add(task);
-        storage.save(tasks.getTasks());
-        ui.showTaskAdded(task.toString(), tasks.getTaskCountMessage());
+        storage.saveAdd(tasks.getTasks(), task);
+        ui.showTaskAdded(task.toString() + " (ID #" + task.getId() + ")",
+                tasks.getTaskCountMessage());
     }
 }
@@ -1,7 +1,9 @@
 package luffy.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import luffy.exception.LuffyException;
+import luffy.task.Task;
 import luffy.task.TaskList;
 import luffy.ui.Ui;
 import luffy.storage.Storage;
@@ -35,4 +37,21 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Joins the string representations of several tasks, one task per line.
+     *
+     * @param tasks the tasks to describe
+     * @return the tasks, separated by line breaks
+     */
+    protected static String describeTasks(ArrayList<Task> tasks) {
+        StringBuilder description = new StringBuilder();
+        for (Task task : tasks) {
+            if (description.length() > 0) {
+                description.append("\n");
+            }
+            description.append(task);
+        }
+        return description.toString();
+    }
 }
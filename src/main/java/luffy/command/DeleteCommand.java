@@ -1,6 +1,7 @@
 package luffy.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import luffy.exception.LuffyException;
 import luffy.task.TaskList;
 import luffy.task.Task;
@@ -8,11 +9,12 @@ import luffy.ui.Ui;
 import luffy.storage.Storage;
 
 /**
- * Command to delete a task from the task list. The task is identified by its 1-based position
- * number in the list.
+ * Command to delete tasks from the task list. Each task is identified by its 1-based position
+ * number in the list or by its stable ID, and several tasks can be given as a list of numbers,
+ * IDs and ranges. Several tasks are removed in one pass over the list and saved in one save.
  */
 public class DeleteCommand extends Command {
-    private int taskNumber;
+    private TaskSelection selection;
 
     /**
      * Creates a new DeleteCommand for the task at the specified position.
@@ -20,30 +22,57 @@ public class DeleteCommand extends Command {
      * @param taskNumber the 1-based position number of the task to delete
      */
     public DeleteCommand(int taskNumber) {
-        this.taskNumber = taskNumber;
+        this(TaskTarget.ofPosition(taskNumber));
     }
 
     /**
-     * Executes the command by removing the specified task from the task list, saving the updated
-     * list to storage, and displaying a confirmation message. Validates that the task number is
-     * within valid bounds.
+     * Creates a new DeleteCommand for the task at the specified position or with the specified ID.
      *
-     * @param tasks the task list to remove the task from
+     * @param target the task to delete
+     */
+    public DeleteCommand(TaskTarget target) {
+        this(TaskSelection.of(target));
+    }
+
+    /**
+     * Creates a new DeleteCommand for every task in the specified selection.
+     *
+     * @param selection the tasks to delete
+     */
+    public DeleteCommand(TaskSelection selection) {
+        this.selection = selection;
+    }
+
+    /**
+     * Executes the command by removing the specified tasks from the task list, saving the updated
+     * list to storage, and displaying a confirmation message. Validates that every task number is
+     * within valid bounds, and that a task with each ID exists, before removing any task.
+     *
+     * @param tasks the task list to remove the tasks from
      * @param ui the user interface for displaying messages
      * @param storage the storage handler for saving changes
-     * @throws LuffyException if the task number is invalid (out of bounds)
+     * @throws LuffyException if a task number is invalid (out of bounds) or an ID is unknown
      * @throws IOException if there is an error saving to storage
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LuffyException, IOException {
-        if (taskNumber < 1 || taskNumber > tasks.size()) {
-            throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
-                    + tasks.size() + " tasks!");
+        int[] indices = selection.resolveIndices(tasks);
+
+        if (indices.length == 0) {
+            ui.showMessage("No tasks match " + selection + ", so nothing changed.");
+            return;
+        }
+        if (indices.length == 1) {
+            int index = indices[0];
+            Task deletedTask = tasks.get(index);
+            tasks.remove(index);
+            storage.saveDelete(tasks.getTasks(), index);
+            ui.showTaskDeleted(deletedTask.toString(), tasks.getTaskCountMessage());
+            return;
         }
 
-        Task deletedTask = tasks.get(taskNumber - 1);
-        tasks.remove(taskNumber - 1);
-        storage.save(tasks.getTasks());
-        ui.showTaskDeleted(deletedTask.toString(), tasks.getTaskCountMessage());
+        ArrayList<Task> deletedTasks = tasks.removeAll(indices);
+        storage.saveAll(tasks.getTasks());
+        ui.showTaskDeleted(describeTasks(deletedTasks), tasks.getTaskCountMessage());
     }
 }
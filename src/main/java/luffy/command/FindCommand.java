@@ -1,6 +1,8 @@
 package luffy.command;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import luffy.task.TaskList;
 import luffy.task.Task;
 import luffy.ui.Ui;
@@ -8,10 +10,21 @@ import luffy.storage.Storage;
 
 /**
  * Command to find tasks by searching for keywords in task descriptions. Performs case-insensitive
- * substring matching and requires all keywords to be present in the task description.
+ * substring matching and requires all keywords to be present in the task description. The search
+ * is served by the task list's keyword index.
+ *
+ * Results can be split into pages of a given size, and can be ranked by relevance: higher
+ * priority first, then more keyword occurrences in the description, then list order. Unranked
+ * pages are found without checking any task past the end of the page.
  */
 public class FindCommand extends Command {
+    public static final int NO_LIMIT = 0;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
     private String[] keywords;
+    private int limit;
+    private int page;
+    private boolean isRanked;
 
     /**
      * Creates a new FindCommand with the specified search keywords.
@@ -19,12 +32,29 @@ public class FindCommand extends Command {
      * @param keywords array of keywords to search for in task descriptions
      */
     public FindCommand(String[] keywords) {
+        this(keywords, NO_LIMIT, 1, false);
+    }
+
+    /**
+     * Creates a new FindCommand that shows one page of the results.
+     *
+     * @param keywords array of keywords to search for in task descriptions
+     * @param limit the number of tasks per page, or NO_LIMIT to show every match on one page
+     * @param page the 1-based page to show
+     * @param isRanked whether to order the results by relevance instead of list order
+     */
+    public FindCommand(String[] keywords, int limit, int page, boolean isRanked) {
+        assert limit >= 0 : "Limit cannot be negative";
+        assert page >= 1 : "Page must be positive";
         this.keywords = keywords;
+        this.limit = limit;
+        this.page = page;
+        this.isRanked = isRanked;
     }
 
     /**
-     * Executes the find command by searching through all tasks for ones that contain all specified
-     * keywords in their descriptions. Displays matching tasks with sequential numbering or shows a
+     * Executes the find command by looking up the tasks that contain all specified keywords in
+     * their descriptions. Displays matching tasks with sequential numbering or shows a
      * "no matches" message if no tasks are found.
      *
      * @param tasks the task list to search through
@@ -33,36 +63,75 @@ public class FindCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
+        int pageSize = limit == NO_LIMIT ? Integer.MAX_VALUE : limit;
+        int offset = limit == NO_LIMIT ? 0
+                : (int) Math.min(Integer.MAX_VALUE, (long) (page - 1) * limit);
 
-        // Search through all tasks
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            String description = task.getDescription().toLowerCase();
-
-            // Check if all keywords are present in the description
-            boolean allKeywordsMatch = true;
-            for (String keyword : keywords) {
-                if (!description.contains(keyword.toLowerCase())) {
-                    allKeywordsMatch = false;
-                    break;
-                }
-            }
-
-            if (allKeywordsMatch) {
-                matchingTasks.add(task);
-            }
+        ArrayList<Task> matchingTasks;
+        if (isRanked) {
+            matchingTasks = tasks.find(keywords);
+            // Count the hits of each match once rather than on every comparison of the sort
+            IdentityHashMap<Task, Integer> hitCounts = countKeywordHits(matchingTasks);
+            matchingTasks.sort(Comparator.comparingInt((Task task) -> task.getPriority().getLevel())
+                    .thenComparing(Comparator.comparingInt(hitCounts::get).reversed()));
+            int from = Math.min(offset, matchingTasks.size());
+            int to = (int) Math.min(matchingTasks.size(), (long) from + pageSize);
+            matchingTasks = new ArrayList<>(matchingTasks.subList(from, to));
+        } else {
+            matchingTasks = tasks.find(keywords, offset, pageSize);
         }
 
         // Display results
         if (matchingTasks.isEmpty()) {
-            ui.showMessage("No matching tasks found.");
+            ui.showMessage(offset == 0 ? "No matching tasks found."
+                    : "No more matching tasks on page " + page + ".");
         } else {
-            StringBuilder result = new StringBuilder("Here are the matching tasks in your list:\n");
+            StringBuilder result = new StringBuilder("Here are the matching tasks in your list");
+            if (limit != NO_LIMIT) {
+                result.append(" (page ").append(page).append(")");
+            }
+            result.append(":\n");
             for (int i = 0; i < matchingTasks.size(); i++) {
-                result.append((i + 1)).append(".").append(matchingTasks.get(i).toString()).append("\n");
+                result.append((offset + i + 1)).append(".")
+                        .append(matchingTasks.get(i).toString()).append("\n");
             }
             ui.showMessage(result.toString());
         }
     }
+
+    /**
+     * Counts the occurrences of every keyword in the description of each task, ignoring case.
+     *
+     * @return the number of keyword occurrences of each task
+     */
+    private IdentityHashMap<Task, Integer> countKeywordHits(ArrayList<Task> tasks) {
+        ArrayList<String> lowerKeywords = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (!keyword.isEmpty()) {
+                lowerKeywords.add(keyword.toLowerCase());
+            }
+        }
+
+        IdentityHashMap<Task, Integer> hitCounts = new IdentityHashMap<>();
+        for (Task task : tasks) {
+            hitCounts.put(task, countKeywordHits(task.getDescription().toLowerCase(),
+                    lowerKeywords));
+        }
+        return hitCounts;
+    }
+
+    /**
+     * Counts the occurrences of every lowercase keyword in a lowercase description.
+     */
+    private static int countKeywordHits(String description, ArrayList<String> lowerKeywords) {
+        int hits = 0;
+        for (String lowerKeyword : lowerKeywords) {
+            int index = description.indexOf(lowerKeyword);
+            while (index != -1) {
+                hits++;
+                index = description.indexOf(lowerKeyword, index + 1);
+            }
+        }
+        return hits;
+    }
 }
@@ -1,19 +1,29 @@
 package luffy.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import luffy.exception.LuffyException;
+import luffy.task.Task;
 import luffy.task.TaskList;
 import luffy.ui.Ui;
 import luffy.storage.Storage;
 
 /**
- * Command to mark a task as done.
+ * Command to mark one or more tasks as done. Several tasks are saved together in one save.
  */
 public class MarkCommand extends Command {
-    private int taskNumber;
+    private TaskSelection selection;
 
     public MarkCommand(int taskNumber) {
-        this.taskNumber = taskNumber;
+        this(TaskTarget.ofPosition(taskNumber));
+    }
+
+    public MarkCommand(TaskTarget target) {
+        this(TaskSelection.of(target));
+    }
+
+    public MarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     @Override
@@ -21,13 +31,26 @@ public class MarkCommand extends Command {
         assert tasks != null : "TaskList cannot be null";
         assert ui != null : "UI cannot be null";
         assert storage != null : "Storage cannot be null";
-        if (taskNumber < 1 || taskNumber > tasks.size()) {
-            throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
-                    + tasks.size() + " tasks!");
+        int[] indices = selection.resolveIndices(tasks);
+
+        if (indices.length == 0) {
+            ui.showMessage("No tasks match " + selection + ", so nothing changed.");
+            return;
+        }
+        if (indices.length == 1) {
+            int index = indices[0];
+            tasks.get(index).setDone(true);
+            storage.saveStatus(tasks.getTasks(), index);
+            ui.showTaskMarked(tasks.get(index).toString());
+            return;
         }
 
-        tasks.get(taskNumber - 1).setDone(true);
-        storage.save(tasks.getTasks());
-        ui.showTaskMarked(tasks.get(taskNumber - 1).toString());
+        ArrayList<Task> markedTasks = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            tasks.get(index).setDone(true);
+            markedTasks.add(tasks.get(index));
+        }
+        storage.saveAll(tasks.getTasks());
+        ui.showTaskMarked(describeTasks(markedTasks));
     }
 }
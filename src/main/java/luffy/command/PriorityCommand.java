@@ -1,6 +1,7 @@
 package luffy.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import luffy.exception.LuffyException;
 import luffy.task.TaskList;
 import luffy.task.Task;
@@ -11,9 +12,10 @@ import luffy.storage.Storage;
 /**
  * Command to set the priority of a task. This command allows users to change the priority level of
  * any task in the task list using various priority formats (HIGH/H/1, NORMAL/N/2, LOW/L/3).
+ * Several tasks can be given as a list of numbers, IDs and ranges, and are saved in one save.
  */
 public class PriorityCommand extends Command {
-    private int taskNumber;
+    private TaskSelection selection;
     private Priority priority;
 
     /**
@@ -23,7 +25,28 @@ public class PriorityCommand extends Command {
      * @param priority the new priority level for the task
      */
     public PriorityCommand(int taskNumber, Priority priority) {
-        this.taskNumber = taskNumber;
+        this(TaskTarget.ofPosition(taskNumber), priority);
+    }
+
+    /**
+     * Creates a new PriorityCommand for the task at the specified position or with the specified
+     * ID.
+     *
+     * @param target the task to modify
+     * @param priority the new priority level for the task
+     */
+    public PriorityCommand(TaskTarget target, Priority priority) {
+        this(TaskSelection.of(target), priority);
+    }
+
+    /**
+     * Creates a new PriorityCommand for every task in the specified selection.
+     *
+     * @param selection the tasks to modify
+     * @param priority the new priority level for the tasks
+     */
+    public PriorityCommand(TaskSelection selection, Priority priority) {
+        this.selection = selection;
         this.priority = priority;
     }
 
@@ -33,16 +56,30 @@ public class PriorityCommand extends Command {
         assert ui != null : "UI cannot be null";
         assert storage != null : "Storage cannot be null";
 
-        if (taskNumber < 1 || taskNumber > tasks.size()) {
-            throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
-                    + tasks.size() + " tasks!");
+        int[] indices = selection.resolveIndices(tasks);
+
+        if (indices.length == 0) {
+            ui.showMessage("No tasks match " + selection + ", so nothing changed.");
+            return;
         }
+        if (indices.length == 1) {
+            int index = indices[0];
+            Task task = tasks.get(index);
+            Priority oldPriority = task.getPriority();
+            task.setPriority(priority);
 
-        Task task = tasks.get(taskNumber - 1);
-        Priority oldPriority = task.getPriority();
-        task.setPriority(priority);
+            storage.savePriority(tasks.getTasks(), index);
+            ui.showPriorityChanged(task.toString(), oldPriority, priority);
+            return;
+        }
 
-        storage.save(tasks.getTasks());
-        ui.showPriorityChanged(task.toString(), oldPriority, priority);
+        ArrayList<Task> changedTasks = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            tasks.get(index).setPriority(priority);
+            changedTasks.add(tasks.get(index));
+        }
+        storage.saveAll(tasks.getTasks());
+        ui.showMessage("YOSH! I've changed the priority of these tasks to "
+                + priority.getDisplayName() + ":\n" + describeTasks(changedTasks));
     }
 }
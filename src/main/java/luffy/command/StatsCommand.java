@@ -0,0 +1,33 @@
+package luffy.command;
+
+import luffy.metrics.CommandMetrics;
+import luffy.task.TaskList;
+import luffy.ui.Ui;
+import luffy.storage.Storage;
+
+/**
+ * Command to show how long commands have taken to parse, execute and save in this session. The
+ * metrics of the session are given to the command by whoever runs it, before it is executed.
+ */
+public class StatsCommand extends Command {
+    private CommandMetrics metrics; // Null until set by the session running the command
+
+    /**
+     * Sets the metrics to show, those collected by the session that runs this command.
+     *
+     * @param metrics the metrics collected in this session
+     */
+    public void setMetrics(CommandMetrics metrics) {
+        assert metrics != null : "Metrics cannot be null";
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        if (metrics == null) {
+            ui.showMessage("No stats have been collected in this session!");
+            return;
+        }
+        ui.showMessage("Here are the stats of this session:\n" + metrics.report());
+    }
+}
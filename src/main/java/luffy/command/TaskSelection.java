@@ -0,0 +1,169 @@
+package luffy.command;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.function.Predicate;
+import luffy.exception.LuffyException;
+import luffy.task.Task;
+import luffy.task.TaskList;
+
+/**
+ * Identifies the tasks a command acts on: a comma-separated list of task numbers, task IDs and
+ * ranges of task numbers, as in "delete 3,#12,10-250". A range includes both of its ends. Every
+ * task in the selection must exist, and a task that is selected more than once is only acted on
+ * once.
+ *
+ * A selection can instead be a filter, as in "delete where done", which selects every task that
+ * meets its conditions in a single pass over the list. A filter may select no task at all.
+ */
+public class TaskSelection {
+    private static final char LIST_SEPARATOR = ',';
+    private static final char RANGE_SEPARATOR = '-';
+
+    private final ArrayList<TaskTarget> targets = new ArrayList<>();
+    private final ArrayList<int[]> ranges = new ArrayList<>(); // First and last task numbers
+    private Predicate<Task> filter; // Null unless the selection is a filter
+    private String filterConditions;
+
+    private TaskSelection() {
+    }
+
+    /**
+     * Creates a selection of every task that meets a filter.
+     *
+     * @param filter the predicate a task must meet to be selected
+     * @param conditions the conditions of the filter as the user typed them
+     * @return the selection
+     */
+    public static TaskSelection where(Predicate<Task> filter, String conditions) {
+        assert filter != null : "Filter cannot be null";
+        TaskSelection selection = new TaskSelection();
+        selection.filter = filter;
+        selection.filterConditions = conditions;
+        return selection;
+    }
+
+    /**
+     * Creates a selection of a single task.
+     *
+     * @param target the task to select
+     * @return the selection
+     */
+    public static TaskSelection of(TaskTarget target) {
+        TaskSelection selection = new TaskSelection();
+        selection.targets.add(target);
+        return selection;
+    }
+
+    /**
+     * Parses a selection such as "3", "#12" or "3,7,10-250" from a range of characters.
+     *
+     * @param text the text containing the selection
+     * @param start the index of the first character of the selection
+     * @param end the index after the last character of the selection
+     * @return the selection
+     * @throws NumberFormatException if any item is not a task number, task ID or range
+     */
+    public static TaskSelection parse(CharSequence text, int start, int end) {
+        TaskSelection selection = new TaskSelection();
+        int itemStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && text.charAt(i) != LIST_SEPARATOR) {
+                continue;
+            }
+            // A leading '-' is the sign of a number rather than a range
+            int rangeSeparator = -1;
+            for (int j = itemStart + 1; j < i && rangeSeparator == -1; j++) {
+                if (text.charAt(j) == RANGE_SEPARATOR) {
+                    rangeSeparator = j;
+                }
+            }
+            if (rangeSeparator == -1) {
+                selection.targets.add(TaskTarget.parse(text, itemStart, i));
+            } else {
+                selection.ranges.add(new int[] {
+                    Integer.parseInt(text, itemStart, rangeSeparator, 10),
+                    Integer.parseInt(text, rangeSeparator + 1, i, 10)
+                });
+            }
+            itemStart = i + 1;
+        }
+        return selection;
+    }
+
+    /**
+     * Returns whether the selection is a single task number or ID.
+     *
+     * @return true if the selection names exactly one task
+     */
+    public boolean isSingle() {
+        return filter == null && targets.size() == 1 && ranges.isEmpty();
+    }
+
+    /**
+     * Returns the target of a single-task selection.
+     *
+     * @return the only target
+     */
+    public TaskTarget getSingleTarget() {
+        assert isSingle() : "Selection has more than one task: " + this;
+        return targets.get(0);
+    }
+
+    /**
+     * Finds the current indices of every selected task, checking that they all exist.
+     *
+     * @param tasks the task list
+     * @return the distinct 0-based indices of the selected tasks, in ascending order, which is
+     *         only empty for a filter
+     * @throws LuffyException if any selected task number, ID or range does not exist
+     */
+    public int[] resolveIndices(TaskList tasks) throws LuffyException {
+        BitSet selected = new BitSet(tasks.size());
+        if (filter != null) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (filter.test(tasks.get(i))) {
+                    selected.set(i);
+                }
+            }
+        }
+        for (TaskTarget target : targets) {
+            selected.set(target.resolveIndex(tasks));
+        }
+        for (int[] range : ranges) {
+            int first = range[0];
+            int last = range[1];
+            if (first > last) {
+                throw new LuffyException("Tasks " + first + "-" + last
+                        + "? A range has to go from the smaller number to the bigger one!");
+            }
+            if (first < 1 || last > tasks.size()) {
+                throw new LuffyException("Tasks " + first + "-" + last
+                        + "? Those don't all exist! I only have " + tasks.size() + " tasks!");
+            }
+            selected.set(first - 1, last);
+        }
+        return selected.stream().toArray();
+    }
+
+    /**
+     * Returns the selection as the user would type it.
+     *
+     * @return the comma-separated task numbers, IDs and ranges, or the conditions of a filter
+     */
+    @Override
+    public String toString() {
+        if (filter != null) {
+            return "where " + filterConditions;
+        }
+        StringBuilder result = new StringBuilder();
+        for (TaskTarget target : targets) {
+            result.append(result.length() == 0 ? "" : LIST_SEPARATOR).append(target);
+        }
+        for (int[] range : ranges) {
+            result.append(result.length() == 0 ? "" : LIST_SEPARATOR)
+                    .append(range[0]).append(RANGE_SEPARATOR).append(range[1]);
+        }
+        return result.toString();
+    }
+}
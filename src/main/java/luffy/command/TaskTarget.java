@@ -0,0 +1,101 @@
+package luffy.command;
+
+import luffy.exception.LuffyException;
+import luffy.task.TaskList;
+
+/**
+ * Identifies the task a command acts on, either by its 1-based position in the list or by its
+ * stable ID. IDs are written with a leading '#', as in "mark #12", and keep referring to the same
+ * task when other tasks are deleted.
+ */
+public class TaskTarget {
+    private static final String ID_PREFIX = "#";
+
+    private final int value;
+    private final boolean isId;
+
+    private TaskTarget(int value, boolean isId) {
+        this.value = value;
+        this.isId = isId;
+    }
+
+    /**
+     * Creates a target for the task at a 1-based position in the list.
+     *
+     * @param taskNumber the 1-based position of the task
+     * @return the target
+     */
+    public static TaskTarget ofPosition(int taskNumber) {
+        return new TaskTarget(taskNumber, false);
+    }
+
+    /**
+     * Creates a target for the task with a stable ID.
+     *
+     * @param id the ID of the task
+     * @return the target
+     */
+    public static TaskTarget ofId(int id) {
+        return new TaskTarget(id, true);
+    }
+
+    /**
+     * Parses a task number such as "3", or a task ID such as "#12".
+     *
+     * @param token the token to parse
+     * @return the target
+     * @throws NumberFormatException if the token is neither a number nor a '#' followed by one
+     */
+    public static TaskTarget parse(String token) {
+        return parse(token, 0, token.length());
+    }
+
+    /**
+     * Parses a task number or task ID from a range of characters, without copying them.
+     *
+     * @param text the text containing the token
+     * @param start the index of the first character of the token
+     * @param end the index after the last character of the token
+     * @return the target
+     * @throws NumberFormatException if the token is neither a number nor a '#' followed by one
+     */
+    public static TaskTarget parse(CharSequence text, int start, int end) {
+        if (start < end && text.charAt(start) == ID_PREFIX.charAt(0)) {
+            return ofId(Integer.parseInt(text, start + ID_PREFIX.length(), end, 10));
+        }
+        return ofPosition(Integer.parseInt(text, start, end, 10));
+    }
+
+    /**
+     * Finds the current index of the target task in the list.
+     *
+     * @param tasks the task list
+     * @return the 0-based index of the task
+     * @throws LuffyException if no task has the targeted position or ID
+     */
+    public int resolveIndex(TaskList tasks) throws LuffyException {
+        if (isId) {
+            int index = tasks.indexOfId(value);
+            if (index == -1) {
+                throw new LuffyException("Task " + this + "? I don't have a task with that ID!");
+            }
+            return index;
+        }
+
+        if (value < 1 || value > tasks.size()) {
+            throw new LuffyException("Task " + value + "? That doesn't exist! I only have "
+                    + tasks.size() + " tasks!");
+        }
+        return value - 1;
+    }
+
+    /**
+     * Returns the target as the user would type it.
+     *
+     * @return the task number, or the task ID with a leading '#'
+     */
+    @Override
+    public String toString() {
+        return isId ? ID_PREFIX + value : String.valueOf(value);
+    }
+}
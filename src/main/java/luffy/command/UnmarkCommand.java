@@ -1,30 +1,54 @@
 package luffy.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import luffy.exception.LuffyException;
+import luffy.task.Task;
 import luffy.task.TaskList;
 import luffy.ui.Ui;
 import luffy.storage.Storage;
 
 /**
- * Command to unmark a task (mark as not done).
+ * Command to unmark one or more tasks (mark as not done). Several tasks are saved together in one
+ * save.
  */
 public class UnmarkCommand extends Command {
-    private int taskNumber;
+    private TaskSelection selection;
 
     public UnmarkCommand(int taskNumber) {
-        this.taskNumber = taskNumber;
+        this(TaskTarget.ofPosition(taskNumber));
+    }
+
+    public UnmarkCommand(TaskTarget target) {
+        this(TaskSelection.of(target));
+    }
+
+    public UnmarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LuffyException, IOException {
-        if (taskNumber < 1 || taskNumber > tasks.size()) {
-            throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
-                    + tasks.size() + " tasks!");
+        int[] indices = selection.resolveIndices(tasks);
+
+        if (indices.length == 0) {
+            ui.showMessage("No tasks match " + selection + ", so nothing changed.");
+            return;
+        }
+        if (indices.length == 1) {
+            int index = indices[0];
+            tasks.get(index).setDone(false);
+            storage.saveStatus(tasks.getTasks(), index);
+            ui.showTaskUnmarked(tasks.get(index).toString());
+            return;
         }
 
-        tasks.get(taskNumber - 1).setDone(false);
-        storage.save(tasks.getTasks());
-        ui.showTaskUnmarked(tasks.get(taskNumber - 1).toString());
+        ArrayList<Task> unmarkedTasks = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            tasks.get(index).setDone(false);
+            unmarkedTasks.add(tasks.get(index));
+        }
+        storage.saveAll(tasks.getTasks());
+        ui.showTaskUnmarked(describeTasks(unmarkedTasks));
     }
 }
@@ -0,0 +1,34 @@
+package luffy.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the parsing and execution of one user command, so that samples
+ * and other events in a recording can be attributed to the command that was running.
+ */
+@Name("luffy.Command")
+@Label("Command")
+@Category({"Luffy", "Commands"})
+@Description("Parsing and execution of a user command")
+public class CommandEvent extends Event {
+    public static final String SUCCEEDED = "succeeded";
+    public static final String FAILED = "failed";
+    public static final String IO_FAILED = "io failed";
+    public static final String INVALID = "invalid";
+
+    @Label("Type")
+    @Description("Type of the command, e.g. mark or todo, or invalid if it could not be parsed")
+    public String type;
+
+    @Label("Task Count")
+    @Description("Number of tasks in the list after the command")
+    public int taskCount;
+
+    @Label("Outcome")
+    @Description("succeeded, failed, io failed, or invalid")
+    public String outcome;
+}
@@ -0,0 +1,223 @@
+package luffy.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import luffy.command.Command;
+
+/**
+ * Collects how long each type of command takes to parse, execute and save, along with the memory
+ * its thread allocated and the bytes it wrote to disk, and how long the tasks took to load. The
+ * collected figures can be shown as a report or written to a file.
+ *
+ * Commands are grouped by type, named after their class, e.g. "mark" for MarkCommand and "todo"
+ * for AddTodoCommand. Input that cannot be parsed is counted as INVALID_TYPE.
+ *
+ * A CommandMetrics is not thread-safe; commands are recorded by the thread that runs them.
+ */
+public class CommandMetrics {
+    public static final String INVALID_TYPE = "invalid";
+    public static final long UNAVAILABLE = -1;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final String COMMAND_SUFFIX = "Command";
+    private static final String ADD_PREFIX = "Add";
+    private static final String OTHER_TYPE = "other";
+
+    private final TreeMap<String, CommandStats> statsByType = new TreeMap<>();
+    private long loadNanos = UNAVAILABLE;
+    private int loadedTaskCount;
+    private long loadedBytes;
+
+    /**
+     * Figures collected for one type of command.
+     */
+    private static class CommandStats {
+        private final LatencyHistogram parseTimes = new LatencyHistogram();
+        private final LatencyHistogram executeTimes = new LatencyHistogram();
+        private final LatencyHistogram writeTimes = new LatencyHistogram();
+        private long failureCount;
+        private long allocatedBytes;
+        private long allocationCount;
+        private long bytesWritten;
+    }
+
+    /**
+     * Records the time taken to parse a command.
+     *
+     * @param type the type of the parsed command, or INVALID_TYPE if the input was invalid
+     * @param nanos the time taken, in nanoseconds
+     */
+    public void recordParse(String type, long nanos) {
+        statsOf(type).parseTimes.record(nanos);
+    }
+
+    /**
+     * Records the execution of a command, including any saving it did.
+     *
+     * @param type the type of the command
+     * @param nanos the time taken to execute the command, including saving, in nanoseconds
+     * @param writeNanos the part of that time spent writing to disk, in nanoseconds
+     * @param bytesWritten the number of bytes written to disk
+     * @param allocatedBytes the bytes allocated by the thread while parsing and executing the
+     *     command, or UNAVAILABLE if the JVM cannot measure them
+     * @param isSuccessful whether the command completed without an error
+     */
+    public void recordExecution(String type, long nanos, long writeNanos, long bytesWritten,
+            long allocatedBytes, boolean isSuccessful) {
+        CommandStats stats = statsOf(type);
+        stats.executeTimes.record(nanos);
+        stats.writeTimes.record(writeNanos);
+        stats.bytesWritten += bytesWritten;
+        if (allocatedBytes != UNAVAILABLE) {
+            stats.allocatedBytes += allocatedBytes;
+            stats.allocationCount++;
+        }
+        if (!isSuccessful) {
+            stats.failureCount++;
+        }
+    }
+
+    /**
+     * Records the loading of the tasks at startup.
+     *
+     * @param nanos the time taken, in nanoseconds
+     * @param taskCount the number of tasks loaded
+     * @param bytes the size of the data file
+     */
+    public void recordLoad(long nanos, int taskCount, long bytes) {
+        loadNanos = nanos;
+        loadedTaskCount = taskCount;
+        loadedBytes = bytes;
+    }
+
+    private CommandStats statsOf(String type) {
+        return statsByType.computeIfAbsent(type, key -> new CommandStats());
+    }
+
+    /**
+     * Returns the type of a command, named after its class without the "Add" prefix and
+     * "Command" suffix, in lowercase.
+     *
+     * @param command the command
+     * @return the type of the command
+     */
+    public static String typeOf(Command command) {
+        String name = command.getClass().getSimpleName();
+        if (name.endsWith(COMMAND_SUFFIX)) {
+            name = name.substring(0, name.length() - COMMAND_SUFFIX.length());
+        }
+        if (name.startsWith(ADD_PREFIX) && name.length() > ADD_PREFIX.length()) {
+            name = name.substring(ADD_PREFIX.length());
+        }
+        return name.isEmpty() ? OTHER_TYPE : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the number of bytes the current thread has allocated so far, for measuring the
+     * allocations of a command as the difference of two readings.
+     *
+     * @return the bytes allocated by the current thread, or UNAVAILABLE if the JVM cannot
+     *     measure them
+     */
+    public static long getAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported()
+                    && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Builds a report of the collected figures: for each type of command, the number of runs and
+     * failures, the 50th and 99th percentile and maximum of the time to parse, execute and write,
+     * the average bytes allocated per run and the total bytes written.
+     *
+     * @return the report, one line per figure
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        if (loadNanos != UNAVAILABLE) {
+            report.append("load: ").append(loadedTaskCount).append(" tasks (")
+                    .append(formatBytes(loadedBytes)).append(") in ")
+                    .append(formatNanos(loadNanos)).append("\n");
+        }
+        if (statsByType.isEmpty()) {
+            report.append("No commands have been run yet.\n");
+        }
+        for (Map.Entry<String, CommandStats> entry : statsByType.entrySet()) {
+            CommandStats stats = entry.getValue();
+            long runCount = stats.parseTimes.getCount();
+            report.append(entry.getKey()).append(": ");
+            if (entry.getKey().equals(INVALID_TYPE)) {
+                report.append(runCount).append(" could not be parsed\n");
+                appendTimes(report, "parse", stats.parseTimes);
+                continue;
+            }
+            report.append(runCount).append(runCount == 1 ? " run" : " runs");
+            if (stats.failureCount > 0) {
+                report.append(", ").append(stats.failureCount).append(" failed");
+            }
+            report.append("\n");
+            appendTimes(report, "parse", stats.parseTimes);
+            appendTimes(report, "execute", stats.executeTimes);
+            appendTimes(report, "write", stats.writeTimes);
+            report.append("  allocated ").append(stats.allocationCount == 0 ? "n/a"
+                    : formatBytes(stats.allocatedBytes / stats.allocationCount) + " per run")
+                    .append(", wrote ").append(formatBytes(stats.bytesWritten)).append("\n");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to a file, replacing any previous report.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeReport(String path) throws IOException {
+        Path file = Paths.get(path);
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Files.writeString(file, report());
+    }
+
+    private static void appendTimes(StringBuilder report, String label,
+            LatencyHistogram times) {
+        report.append("  ").append(label).append(": p50 ")
+                .append(formatNanos(times.getPercentile(50))).append(", p99 ")
+                .append(formatNanos(times.getPercentile(99))).append(", max ")
+                .append(formatNanos(times.getMax())).append("\n");
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        } else if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f us", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
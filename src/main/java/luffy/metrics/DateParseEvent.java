@@ -0,0 +1,23 @@
+package luffy.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for parsing a date and time typed by the user.
+ */
+@Name("luffy.DateParse")
+@Label("Date Parse")
+@Category({"Luffy", "Parser"})
+@Description("Parsing of a user-entered date and time")
+public class DateParseEvent extends Event {
+    @Label("Input")
+    public String input;
+
+    @Label("Valid")
+    @Description("Whether the input was a valid date and time")
+    public boolean isValid;
+}
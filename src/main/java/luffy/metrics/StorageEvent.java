@@ -0,0 +1,38 @@
+package luffy.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one read or write of the data file or journal by Storage.
+ */
+@Name("luffy.Storage")
+@Label("Storage I/O")
+@Category({"Luffy", "Storage"})
+@Description("Load of the tasks, or a save, patch or journal append of changes")
+public class StorageEvent extends Event {
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+    public static final String PATCH = "patch";
+    public static final String JOURNAL = "journal";
+
+    @Label("Operation")
+    @Description("load, save, patch or journal")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @Description("Size of the data file loaded or saved, or the bytes patched or appended")
+    @DataAmount
+    public long bytes;
+
+    @Label("Records")
+    @Description("Number of tasks loaded or saved, or 1 for a patch or journal record")
+    public int records;
+}
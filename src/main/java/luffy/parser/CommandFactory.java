@@ -0,0 +1,21 @@
+package luffy.parser;
+
+import luffy.command.Command;
+import luffy.exception.LuffyException;
+
+/**
+ * Creates a Command from a line of user input whose first word is the keyword the factory was
+ * registered under.
+ */
+@FunctionalInterface
+public interface CommandFactory {
+
+    /**
+     * Creates the command for a line of user input.
+     *
+     * @param input the trimmed user input, starting with the command keyword in any case
+     * @return the command described by the input
+     * @throws LuffyException if the input is not a valid use of the command
+     */
+    Command create(String input) throws LuffyException;
+}
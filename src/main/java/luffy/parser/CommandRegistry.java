@@ -0,0 +1,104 @@
+package luffy.parser;
+
+/**
+ * Maps command keywords to the factories that create their commands, using a trie of the
+ * lowercased keywords. Looking up an input walks the trie once along its first characters, in any
+ * case, so the cost depends only on the length of the keyword and not on how many commands there
+ * are.
+ *
+ * A keyword matches input that starts with it, like "todo" in "todo read book", unless it was
+ * registered as an exact keyword, like "list", which only matches input that is the keyword
+ * alone. When several keywords match, the longest wins.
+ */
+class CommandRegistry {
+    private static final int ALPHABET_SIZE = 26;
+
+    private final Node root = new Node();
+
+    /**
+     * A trie node, holding the factory of the keyword that ends at it, if any.
+     */
+    private static class Node {
+        private final Node[] children = new Node[ALPHABET_SIZE];
+        private CommandFactory factory;
+        private boolean isExact;
+    }
+
+    /**
+     * Registers a factory for input starting with the keyword, replacing any factory already
+     * registered for it.
+     *
+     * @param keyword the command keyword, made of the letters a to z in any case
+     * @param isExact whether the keyword must be the whole input rather than its start
+     * @param factory the factory that creates the command
+     */
+    void register(String keyword, boolean isExact, CommandFactory factory) {
+        assert !keyword.isEmpty() : "Command keyword cannot be empty";
+        assert factory != null : "Command factory cannot be null";
+        Node node = root;
+        for (int i = 0; i < keyword.length(); i++) {
+            int letter = toLetterIndex(keyword.charAt(i));
+            assert letter != -1 : "Command keyword must only contain letters: " + keyword;
+            if (node.children[letter] == null) {
+                node.children[letter] = new Node();
+            }
+            node = node.children[letter];
+        }
+        node.factory = factory;
+        node.isExact = isExact;
+    }
+
+    /**
+     * Removes the factory registered for exactly the keyword, if any. Longer keywords starting
+     * with it stay registered.
+     *
+     * @param keyword the command keyword
+     */
+    void unregister(String keyword) {
+        Node node = root;
+        for (int i = 0; i < keyword.length() && node != null; i++) {
+            int letter = toLetterIndex(keyword.charAt(i));
+            node = letter == -1 ? null : node.children[letter];
+        }
+        if (node != null) {
+            node.factory = null;
+            node.isExact = false;
+        }
+    }
+
+    /**
+     * Finds the factory of the longest keyword that matches the input.
+     *
+     * @param input the trimmed user input
+     * @return the factory, or null if no keyword matches
+     */
+    CommandFactory find(String input) {
+        CommandFactory match = null;
+        Node node = root;
+        for (int i = 0; i < input.length(); i++) {
+            int letter = toLetterIndex(input.charAt(i));
+            node = letter == -1 ? null : node.children[letter];
+            if (node == null) {
+                return match;
+            }
+            if (node.factory != null && (!node.isExact || i == input.length() - 1)) {
+                match = node.factory;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the position of an ASCII letter in the alphabet, ignoring case, or -1 for any other
+     * character.
+     */
+    private static int toLetterIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,107 @@
+package luffy.parser;
+
+/**
+ * Splits a line of user input into whitespace-separated tokens without copying it. The tokenizer
+ * is a cursor: each call to next moves to the following token, which is described by its start
+ * and end index in the input. Tokens are only copied into strings when a caller asks for one, so
+ * commands whose arguments are numbers or fixed words are parsed without creating any strings.
+ * Runs of several spaces between tokens are treated as one separator.
+ */
+class CommandTokenizer {
+    private final String input;
+    private int start;
+    private int end;
+
+    /**
+     * Creates a tokenizer positioned before the first token of the input.
+     *
+     * @param input the user input
+     */
+    CommandTokenizer(String input) {
+        assert input != null : "Input cannot be null";
+        this.input = input;
+    }
+
+    /**
+     * Moves to the next token.
+     *
+     * @return true if there was another token, false if the input is used up
+     */
+    boolean next() {
+        int index = end;
+        while (index < input.length() && Character.isWhitespace(input.charAt(index))) {
+            index++;
+        }
+        if (index == input.length()) {
+            start = index;
+            end = index;
+            return false;
+        }
+        start = index;
+        while (index < input.length() && !Character.isWhitespace(input.charAt(index))) {
+            index++;
+        }
+        end = index;
+        return true;
+    }
+
+    /**
+     * Returns the input being tokenized.
+     */
+    String input() {
+        return input;
+    }
+
+    /**
+     * Returns the index of the first character of the current token.
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * Returns the index after the last character of the current token.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Returns a copy of the current token.
+     *
+     * @return the current token
+     */
+    String token() {
+        return input.substring(start, end);
+    }
+
+    /**
+     * Checks whether the current token is the given word, ignoring case.
+     *
+     * @param word the word to compare with
+     * @return true if the token is the word
+     */
+    boolean isToken(String word) {
+        return end - start == word.length()
+                && input.regionMatches(true, start, word, 0, word.length());
+    }
+
+    /**
+     * Parses the current token as a decimal integer, with an optional sign.
+     *
+     * @return the value of the token
+     * @throws NumberFormatException if the token is not an integer
+     */
+    int tokenAsInt() {
+        return Integer.parseInt(input, start, end, 10);
+    }
+
+    /**
+     * Returns the trimmed text after the current token.
+     *
+     * @return the rest of the input, which may be empty
+     */
+    String remainder() {
+        return input.substring(end).trim();
+    }
+}
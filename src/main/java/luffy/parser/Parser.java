@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Locale;
 import luffy.exception.LuffyException;
+import luffy.metrics.DateParseEvent;
 import luffy.task.Priority;
 import luffy.command.*;
 
@@ -27,14 +29,59 @@ public class Parser {
     private static final String D_M_YYYY_H_MM_A = "d/M/yyyy h:mm a";
     private static final String D_M_YYYY = "d/M/yyyy";
 
-    // Date pattern regex
-    private static final String DATE_ONLY_DASH_PATTERN = ".*\\d{4}-\\d{2}-\\d{2}$";
-    private static final String DATE_ONLY_SLASH_PATTERN = ".*\\d{1,2}/\\d{1,2}/\\d{4}$";
+    // Formatters for each date format, indexed by date shape and then by time shape
+    private static final DateTimeFormatter[][] FORMATTERS = {
+        {
+            DateTimeFormatter.ofPattern(YYYY_MM_DD),
+            DateTimeFormatter.ofPattern(YYYY_MM_DD_HHMM),
+            DateTimeFormatter.ofPattern(YYYY_MM_DD_HH_MM),
+            DateTimeFormatter.ofPattern(YYYY_MM_DD_H_MM_A, Locale.ENGLISH)
+        },
+        {
+            DateTimeFormatter.ofPattern(D_M_YYYY),
+            DateTimeFormatter.ofPattern(D_M_YYYY_HHMM),
+            DateTimeFormatter.ofPattern(D_M_YYYY_HH_MM),
+            DateTimeFormatter.ofPattern(D_M_YYYY_H_MM_A, Locale.ENGLISH)
+        }
+    };
+
+    // Date shapes: yyyy-MM-dd or d/M/yyyy
+    private static final int DASH_DATE = 0;
+    private static final int SLASH_DATE = 1;
+
+    // Time shapes: none, HHmm, HH:mm or h:mm followed by AM/PM
+    private static final int NO_TIME = 0;
+    private static final int COMPACT_TIME = 1;
+    private static final int COLON_TIME = 2;
+    private static final int TWELVE_HOUR_TIME = 3;
+
+    private static final int UNKNOWN_SHAPE = -1;
 
     // Default time for date-only inputs
     private static final int DEFAULT_HOUR = 23;
     private static final int DEFAULT_MINUTE = 59;
 
+    // Keyword that starts the conditions of a bulk command, as in "delete where done"
+    private static final String WHERE_KEYWORD = "where";
+
+    // Command keywords and the factories that create their commands
+    private static final CommandRegistry COMMANDS = new CommandRegistry();
+
+    static {
+        COMMANDS.register("bye", true, input -> new ExitCommand());
+        COMMANDS.register("list", true, input -> new ListCommand());
+        COMMANDS.register("stats", true, input -> new StatsCommand());
+        COMMANDS.register("todo", false, Parser::parseTodoCommand);
+        COMMANDS.register("deadline", false, Parser::parseDeadlineCommand);
+        COMMANDS.register("event", false, Parser::parseEventCommand);
+        COMMANDS.register("mark", false, Parser::parseMarkCommand);
+        COMMANDS.register("unmark", false, Parser::parseUnmarkCommand);
+        COMMANDS.register("delete", false, Parser::parseDeleteCommand);
+        COMMANDS.register("due", false, Parser::parseDueCommand);
+        COMMANDS.register("find", false, Parser::parseFindCommand);
+        COMMANDS.register("priority", false, Parser::parsePriorityCommand);
+    }
+
     /**
      * Parses a date/time string into LocalDateTime object. Supports multiple date and time formats
      * with flexible input parsing.
@@ -45,6 +92,9 @@ public class Parser {
      * to 23:59) - d/m/yyyy HHmm (date with time in 24-hour format) - d/m/yyyy HH:mm (date with time
      * in 24-hour format) - d/m/yyyy h:mm AM/PM (date with time in 12-hour format)
      *
+     * The shape of the input (which date format, and which time format if any) is classified in a
+     * single scan, and only the one formatter for that shape is used. AM/PM may be in any case.
+     *
      * @param dateTimeStr the date/time string to parse
      * @return LocalDateTime object representing the parsed date and time
      * @throws LuffyException if the date/time string cannot be parsed
@@ -58,38 +108,17 @@ public class Parser {
             throw new LuffyException("Date/time string cannot be empty");
         }
 
-        // Normalize AM/PM to uppercase for consistent parsing
-        String normalizedInput =
-                dateTimeStr.replaceAll("(?i)\\bam\\b", "AM").replaceAll("(?i)\\bpm\\b", "PM");
-
-        // Define possible formatters with English locale for AM/PM parsing
-        DateTimeFormatter[] formatters = {
-                // yyyy-mm-dd formats
-                DateTimeFormatter.ofPattern(YYYY_MM_DD_HHMM),
-                DateTimeFormatter.ofPattern(YYYY_MM_DD_HH_MM),
-                DateTimeFormatter.ofPattern(YYYY_MM_DD_H_MM_A, Locale.ENGLISH),
-                DateTimeFormatter.ofPattern(YYYY_MM_DD),
-                // d/m/yyyy formats
-                DateTimeFormatter.ofPattern(D_M_YYYY_HHMM),
-                DateTimeFormatter.ofPattern(D_M_YYYY_HH_MM),
-                DateTimeFormatter.ofPattern(D_M_YYYY_H_MM_A, Locale.ENGLISH),
-                DateTimeFormatter.ofPattern(D_M_YYYY)};
-
-        // Try parsing with each formatter
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                if (normalizedInput.matches(DATE_ONLY_DASH_PATTERN)
-                        || normalizedInput.matches(DATE_ONLY_SLASH_PATTERN)) {
-                    // Date only formats - parse as LocalDate and set time to default
-                    LocalDate date = LocalDate.parse(normalizedInput, formatter);
-                    return date.atTime(DEFAULT_HOUR, DEFAULT_MINUTE);
-                } else {
-                    // Date with time formats
-                    return LocalDateTime.parse(normalizedInput, formatter);
-                }
-            } catch (DateTimeParseException e) {
-                // Continue to next formatter
-            }
+        DateParseEvent event = new DateParseEvent();
+        event.begin();
+        LocalDateTime dateTime = parseDateTimeShape(dateTimeStr);
+        event.end();
+        if (event.shouldCommit()) {
+            event.input = dateTimeStr;
+            event.isValid = dateTime != null;
+            event.commit();
+        }
+        if (dateTime != null) {
+            return dateTime;
         }
 
         // If no formatter worked, provide helpful error message with suggestions
@@ -99,6 +128,128 @@ public class Parser {
                 + "2/12/2019, 2/12/2019 1800, 2/12/2019 18:00, or 2/12/2019 6:00 PM");
     }
 
+    /**
+     * Parses a trimmed date/time string with the formatter for its shape.
+     *
+     * @return the date and time, or null if the string has no known shape or an invalid value
+     */
+    private static LocalDateTime parseDateTimeShape(String input) {
+        int dateEnd = input.indexOf(' ');
+        if (dateEnd == -1) {
+            dateEnd = input.length();
+        }
+        int dateShape = classifyDate(input, dateEnd);
+        int timeShape = dateShape == UNKNOWN_SHAPE ? UNKNOWN_SHAPE
+                : classifyTime(input, Math.min(dateEnd + 1, input.length()));
+        if (timeShape == UNKNOWN_SHAPE || (timeShape == NO_TIME && dateEnd != input.length())) {
+            return null;
+        }
+
+        DateTimeFormatter formatter = FORMATTERS[dateShape][timeShape];
+        try {
+            if (timeShape == NO_TIME) {
+                return LocalDate.parse(input, formatter).atTime(DEFAULT_HOUR, DEFAULT_MINUTE);
+            }
+            if (timeShape == TWELVE_HOUR_TIME) {
+                // The formatter only accepts upper case AM/PM
+                int markerStart = input.length() - 2;
+                input = input.substring(0, markerStart)
+                        + input.substring(markerStart).toUpperCase(Locale.ENGLISH);
+            }
+            return LocalDateTime.parse(input, formatter);
+        } catch (DateTimeParseException e) {
+            // The shape is right but a value is out of range, such as month 13
+            return null;
+        }
+    }
+
+    /**
+     * Classifies the date at the start of the input as yyyy-MM-dd or d/M/yyyy. The field widths
+     * follow the formatters: the day and month of d/M/yyyy may have leading zeros, and a year of
+     * more than four digits needs a leading '+'.
+     *
+     * @return DASH_DATE, SLASH_DATE or UNKNOWN_SHAPE
+     */
+    private static int classifyDate(String input, int end) {
+        int yearEnd = skipYear(input, 0, end);
+        if (yearEnd != -1 && isAt(input, yearEnd, '-') && countDigits(input, yearEnd + 1, end) == 2
+                && isAt(input, yearEnd + 3, '-') && countDigits(input, yearEnd + 4, end) == 2
+                && yearEnd + 6 == end) {
+            return DASH_DATE;
+        }
+        int dayDigits = countDigits(input, 0, end);
+        int monthStart = dayDigits + 1;
+        if (dayDigits == 0 || !isAt(input, dayDigits, '/')) {
+            return UNKNOWN_SHAPE;
+        }
+        int monthDigits = countDigits(input, monthStart, end);
+        int yearStart = monthStart + monthDigits + 1;
+        if (monthDigits > 0 && isAt(input, yearStart - 1, '/')
+                && skipYear(input, yearStart, end) == end) {
+            return SLASH_DATE;
+        }
+        return UNKNOWN_SHAPE;
+    }
+
+    /**
+     * Skips a year of exactly four digits, or of more than four digits after a '+'.
+     *
+     * @return the index after the year, or -1 if there is no year at the start index
+     */
+    private static int skipYear(String input, int start, int end) {
+        boolean isSigned = isAt(input, start, '+');
+        int digitsStart = isSigned ? start + 1 : start;
+        int digits = countDigits(input, digitsStart, end);
+        boolean isValid = isSigned ? digits > 4 : digits == 4;
+        return isValid ? digitsStart + digits : -1;
+    }
+
+    /**
+     * Classifies the time that starts at the given index as absent, HHmm, HH:mm or h:mm AM/PM.
+     *
+     * @return NO_TIME, COMPACT_TIME, COLON_TIME, TWELVE_HOUR_TIME or UNKNOWN_SHAPE
+     */
+    private static int classifyTime(String input, int start) {
+        int end = input.length();
+        if (start == end) {
+            return NO_TIME;
+        }
+        int hourDigits = countDigits(input, start, end);
+        if (hourDigits == 4 && start + 4 == end) {
+            return COMPACT_TIME;
+        }
+        int minuteStart = start + hourDigits + 1;
+        if (hourDigits < 1 || hourDigits > 2 || !isAt(input, minuteStart - 1, ':')
+                || countDigits(input, minuteStart, end) != 2) {
+            return UNKNOWN_SHAPE;
+        }
+        int minuteEnd = minuteStart + 2;
+        if (minuteEnd == end) {
+            return hourDigits == 2 ? COLON_TIME : UNKNOWN_SHAPE;
+        }
+        if (minuteEnd + 3 == end && isAt(input, minuteEnd, ' ')
+                && (input.regionMatches(true, minuteEnd + 1, "AM", 0, 2)
+                        || input.regionMatches(true, minuteEnd + 1, "PM", 0, 2))) {
+            return TWELVE_HOUR_TIME;
+        }
+        return UNKNOWN_SHAPE;
+    }
+
+    /**
+     * Counts the ASCII digits starting at the given index, stopping at the end index.
+     */
+    private static int countDigits(String input, int start, int end) {
+        int index = start;
+        while (index < end && input.charAt(index) >= '0' && input.charAt(index) <= '9') {
+            index++;
+        }
+        return index - start;
+    }
+
+    private static boolean isAt(String input, int index, char expected) {
+        return index < input.length() && input.charAt(index) == expected;
+    }
+
     /**
      * Validates that the event start time is before end time.
      */
@@ -215,46 +366,119 @@ public class Parser {
      */
     public static void validateMarkUnmarkCommand(String input, boolean isMark, int taskCount)
             throws LuffyException {
-        String[] parts = input.split(" ");
-        if (parts.length < 2) {
-            String action = isMark ? "mark" : "unmark";
+        validateTaskNumber(input, isMark ? "mark" : "unmark", taskCount);
+    }
+
+    /**
+     * Validates delete command input.
+     */
+    public static void validateDeleteCommand(String input, int taskCount) throws LuffyException {
+        validateTaskNumber(input, "delete", taskCount);
+    }
+
+    /**
+     * Validates that the token after the command keyword is the number of an existing task.
+     */
+    private static void validateTaskNumber(String input, String action, int taskCount)
+            throws LuffyException {
+        CommandTokenizer tokens = new CommandTokenizer(input);
+        tokens.next();
+        if (!tokens.next()) {
             throw new LuffyException(
                     "Which task do you want me to " + action + "? Give me a number!");
         }
 
         try {
-            int taskNumber = Integer.parseInt(parts[1]);
+            int taskNumber = tokens.tokenAsInt();
             if (taskNumber < 1 || taskNumber > taskCount) {
                 throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
                         + taskCount + " tasks!");
             }
         } catch (NumberFormatException e) {
             throw new LuffyException(
-                    "'" + parts[1] + "' is not a number! Give me a proper task number!");
+                    "'" + tokens.token() + "' is not a number! Give me a proper task number!");
         }
     }
 
     /**
-     * Validates delete command input.
+     * Parses a find command: its keywords, optionally followed or interleaved with "/limit N" to
+     * split the results into pages of N tasks, "/page P" to show the P-th page, and "/rank" to
+     * order the results by relevance. A page without a limit uses the default page size.
      */
-    public static void validateDeleteCommand(String input, int taskCount) throws LuffyException {
-        String[] parts = input.split(" ");
-        if (parts.length < 2) {
-            throw new LuffyException("Which task do you want me to delete? Give me a number!");
+    private static FindCommand parseFindCommand(String input) throws LuffyException {
+        // Extract keywords and options (skip the "find" command word)
+        CommandTokenizer tokens = new CommandTokenizer(input);
+        tokens.next();
+        ArrayList<String> keywords = new ArrayList<>();
+        int limit = FindCommand.NO_LIMIT;
+        int page = 1;
+        boolean isRanked = false;
+        boolean hasPage = false;
+        while (tokens.next()) {
+            if (tokens.isToken("/limit")) {
+                limit = parsePositiveOption(tokens, "/limit");
+            } else if (tokens.isToken("/page")) {
+                page = parsePositiveOption(tokens, "/page");
+                hasPage = true;
+            } else if (tokens.isToken("/rank")) {
+                isRanked = true;
+            } else {
+                keywords.add(tokens.token());
+            }
         }
+        if (hasPage && limit == FindCommand.NO_LIMIT) {
+            limit = FindCommand.DEFAULT_PAGE_SIZE;
+        }
+
+        if (keywords.isEmpty()) {
+            throw new LuffyException("What do you want to find? Give me some keywords!");
+        }
+
+        return new FindCommand(keywords.toArray(new String[0]), limit, page, isRanked);
+    }
 
+    /**
+     * Parses the positive number that follows an option of a command.
+     */
+    private static int parsePositiveOption(CommandTokenizer tokens, String option)
+            throws LuffyException {
+        if (!tokens.next()) {
+            throw new LuffyException("You didn't give me a number after '" + option + "'!");
+        }
         try {
-            int taskNumber = Integer.parseInt(parts[1]);
-            if (taskNumber < 1 || taskNumber > taskCount) {
-                throw new LuffyException("Task " + taskNumber + "? That doesn't exist! I only have "
-                        + taskCount + " tasks!");
+            int value = tokens.tokenAsInt();
+            if (value < 1) {
+                throw new LuffyException("'" + option + "' needs a number bigger than 0!");
             }
+            return value;
         } catch (NumberFormatException e) {
-            throw new LuffyException(
-                    "'" + parts[1] + "' is not a number! Give me a proper task number!");
+            throw new LuffyException("'" + tokens.token() + "' is not a number! Give me a proper "
+                    + "number after '" + option + "'!");
         }
     }
 
+    /**
+     * Registers a command keyword, so that parse creates commands for input starting with it using
+     * the given factory. Keywords are matched in any case. Registering a keyword again replaces
+     * its factory.
+     *
+     * @param keyword the command keyword, made of the letters a to z
+     * @param factory the factory that creates the command from the whole input
+     */
+    public static void registerCommand(String keyword, CommandFactory factory) {
+        COMMANDS.register(keyword, false, factory);
+    }
+
+    /**
+     * Removes a command keyword registered with registerCommand, so that tests can restore the
+     * shared registry.
+     *
+     * @param keyword the command keyword
+     */
+    static void unregisterCommand(String keyword) {
+        COMMANDS.unregister(keyword);
+    }
+
     /**
      * Parses user input and returns the appropriate Command object. Supports various command types
      * including todo, deadline, event, mark, unmark, delete, list, due, and bye commands. Command
@@ -268,159 +492,136 @@ public class Parser {
         assert fullCommand != null : "Command string cannot be null";
         String input = fullCommand.trim();
 
-        // If input is "bye", return ExitCommand
-        if (input.equals("bye") || input.equals("Bye") || input.equals("BYE")) {
-            return new ExitCommand();
-        }
-
-        // If input is "list", return ListCommand
-        if (input.equals("list") || input.equals("List") || input.equals("LIST")) {
-            return new ListCommand();
-        }
-
-        // If input starts with "todo", return AddTodoCommand
-        if (input.startsWith("todo") || input.startsWith("Todo") || input.startsWith("TODO")) {
-            validateTodoCommand(input);
-            String description = input.substring(4).trim();
-            return new AddTodoCommand(description);
+        CommandFactory factory = COMMANDS.find(input);
+        if (factory != null) {
+            return factory.create(input);
         }
 
-        // If input starts with "deadline", return AddDeadlineCommand
-        if (input.startsWith("deadline") || input.startsWith("Deadline")
-                || input.startsWith("DEADLINE")) {
-            validateDeadlineCommand(input);
-            int byIndex = input.indexOf("/by");
-            String description = input.substring(8, byIndex).trim();
-            String byStr = input.substring(byIndex + 3).trim();
-            return new AddDeadlineCommand(description, byStr);
+        // If we get here, it's an unknown command
+        if (!input.isEmpty()) {
+            throw new LuffyException("I don't understand '" + input + "'! Try: todo, deadline, "
+                    + "event, mark, unmark, delete, list, due, find, priority, stats, or bye!");
         }
 
-        // If input starts with "event", return AddEventCommand
-        if (input.startsWith("event") || input.startsWith("Event") || input.startsWith("EVENT")) {
-            validateEventCommand(input);
-            int fromIndex = input.indexOf("/from");
-            int toIndex = input.indexOf("/to");
-            String description = input.substring(5, fromIndex).trim();
-            String fromStr = input.substring(fromIndex + 5, toIndex).trim();
-            String toStr = input.substring(toIndex + 3).trim();
-            return new AddEventCommand(description, fromStr, toStr);
-        }
+        // Empty input - just return null or handle as needed
+        throw new LuffyException("Please enter a command!");
+    }
 
-        // If input starts with "mark", return MarkCommand
-        if (input.startsWith("mark") || input.startsWith("Mark") || input.startsWith("MARK")) {
-            // We need to pass taskCount for validation, but we don't have access to it here
-            // We'll validate in the command execution instead
-            String[] parts = input.split(" ");
-            if (parts.length < 2) {
-                throw new LuffyException("Which task do you want me to mark? Give me a number!");
-            }
-            try {
-                int taskNumber = Integer.parseInt(parts[1]);
-                return new MarkCommand(taskNumber);
-            } catch (NumberFormatException e) {
-                throw new LuffyException(
-                        "'" + parts[1] + "' is not a number! Give me a proper task number!");
-            }
-        }
+    private static Command parseTodoCommand(String input) throws LuffyException {
+        validateTodoCommand(input);
+        String description = input.substring(4).trim();
+        return new AddTodoCommand(description);
+    }
 
-        // If input starts with "unmark", return UnmarkCommand
-        if (input.startsWith("unmark") || input.startsWith("Unmark")
-                || input.startsWith("UNMARK")) {
-            String[] parts = input.split(" ");
-            if (parts.length < 2) {
-                throw new LuffyException("Which task do you want me to unmark? Give me a number!");
-            }
-            try {
-                int taskNumber = Integer.parseInt(parts[1]);
-                return new UnmarkCommand(taskNumber);
-            } catch (NumberFormatException e) {
-                throw new LuffyException(
-                        "'" + parts[1] + "' is not a number! Give me a proper task number!");
-            }
-        }
+    private static Command parseDeadlineCommand(String input) throws LuffyException {
+        validateDeadlineCommand(input);
+        int byIndex = input.indexOf("/by");
+        String description = input.substring(8, byIndex).trim();
+        String byStr = input.substring(byIndex + 3).trim();
+        return new AddDeadlineCommand(description, byStr);
+    }
 
-        // If input starts with "delete", return DeleteCommand
-        if (input.startsWith("delete") || input.startsWith("Delete")
-                || input.startsWith("DELETE")) {
-            String[] parts = input.split(" ");
-            if (parts.length < 2) {
-                throw new LuffyException("Which task do you want me to delete? Give me a number!");
-            }
-            try {
-                int taskNumber = Integer.parseInt(parts[1]);
-                return new DeleteCommand(taskNumber);
-            } catch (NumberFormatException e) {
-                throw new LuffyException(
-                        "'" + parts[1] + "' is not a number! Give me a proper task number!");
-            }
-        }
+    private static Command parseEventCommand(String input) throws LuffyException {
+        validateEventCommand(input);
+        int fromIndex = input.indexOf("/from");
+        int toIndex = input.indexOf("/to");
+        String description = input.substring(5, fromIndex).trim();
+        String fromStr = input.substring(fromIndex + 5, toIndex).trim();
+        String toStr = input.substring(toIndex + 3).trim();
+        return new AddEventCommand(description, fromStr, toStr);
+    }
 
-        // If input starts with "due", return DueCommand
-        if (input.startsWith("due") || input.startsWith("Due") || input.startsWith("DUE")) {
-            String[] parts = input.split(" ", 2);
-            if (parts.length < 2 || parts[1].trim().isEmpty()) {
-                throw new LuffyException("Which date do you want to check? Use: due 2019-12-02");
-            }
-            String dateStr = parts[1].trim();
-            return new DueCommand(dateStr);
-        }
+    private static Command parseMarkCommand(String input) throws LuffyException {
+        // We need to pass taskCount for validation, but we don't have access to it here
+        // We'll validate in the command execution instead
+        return new MarkCommand(parseSelection(input, "mark"));
+    }
 
-        // If input starts with "find", return FindCommand
-        if (input.startsWith("find") || input.startsWith("Find") || input.startsWith("FIND")) {
-            String[] parts = input.split(" ");
-            if (parts.length < 2) {
-                throw new LuffyException("What do you want to find? Give me some keywords!");
-            }
+    private static Command parseUnmarkCommand(String input) throws LuffyException {
+        return new UnmarkCommand(parseSelection(input, "unmark"));
+    }
 
-            // Extract keywords (skip the "find" command word)
-            String[] keywords = new String[parts.length - 1];
-            for (int i = 1; i < parts.length; i++) {
-                keywords[i - 1] = parts[i].trim();
-            }
+    private static Command parseDeleteCommand(String input) throws LuffyException {
+        return new DeleteCommand(parseSelection(input, "delete"));
+    }
 
-            // Check if all keywords are empty or whitespace
-            boolean hasValidKeyword = false;
-            for (String keyword : keywords) {
-                if (!keyword.isEmpty()) {
-                    hasValidKeyword = true;
-                    break;
-                }
-            }
+    /**
+     * Parses the task numbers, IDs and ranges, or the "where" conditions, that follow the keyword
+     * of a mark, unmark or delete command.
+     */
+    private static TaskSelection parseSelection(String input, String action)
+            throws LuffyException {
+        CommandTokenizer tokens = new CommandTokenizer(input);
+        tokens.next();
+        if (!tokens.next()) {
+            throw new LuffyException(
+                    "Which task do you want me to " + action + "? Give me a number!");
+        }
+        if (tokens.isToken(WHERE_KEYWORD)) {
+            return parseFilter(tokens.remainder());
+        }
+        try {
+            return TaskSelection.parse(input, tokens.start(), tokens.end());
+        } catch (NumberFormatException e) {
+            throw new LuffyException(
+                    "'" + tokens.token() + "' is not a number! Give me a proper task number!");
+        }
+    }
 
-            if (!hasValidKeyword) {
-                throw new LuffyException("What do you want to find? Give me some keywords!");
-            }
+    /**
+     * Parses the conditions after "where" into a selection of every task that meets them.
+     */
+    private static TaskSelection parseFilter(String conditions) throws LuffyException {
+        return TaskSelection.where(TaskFilterParser.parse(conditions), conditions);
+    }
 
-            return new FindCommand(keywords);
+    private static Command parseDueCommand(String input) throws LuffyException {
+        CommandTokenizer tokens = new CommandTokenizer(input);
+        tokens.next();
+        String dateStr = tokens.remainder();
+        if (dateStr.isEmpty()) {
+            throw new LuffyException("Which date do you want to check? Use: due 2019-12-02");
         }
+        return new DueCommand(dateStr);
+    }
 
-        // If input starts with "priority", return PriorityCommand
-        if (input.startsWith("priority") || input.startsWith("Priority")
-                || input.startsWith("PRIORITY")) {
-            String[] parts = input.split(" ");
-            if (parts.length < 3) {
-                throw new LuffyException("Priority command needs a task number and priority level! "
-                        + "Usage: priority <task_number> <HIGH/NORMAL/LOW or H/N/L or 1/2/3>");
+    private static Command parsePriorityCommand(String input) throws LuffyException {
+        CommandTokenizer tokens = new CommandTokenizer(input);
+        tokens.next();
+        boolean hasTarget = tokens.next();
+        int targetStart = tokens.start();
+        int targetEnd = tokens.end();
+        boolean isFilter = hasTarget && tokens.isToken(WHERE_KEYWORD);
+        if (!hasTarget || !tokens.next()) {
+            throw new LuffyException("Priority command needs a task number and priority level! "
+                    + "Usage: priority <task_numbers, #ids or ranges> "
+                    + "<HIGH/NORMAL/LOW or H/N/L or 1/2/3>");
+        }
+
+        TaskSelection selection;
+        int priorityStart = tokens.start();
+        int priorityEnd = tokens.end();
+        if (isFilter) {
+            // The priority level is the last word, after the conditions
+            while (tokens.next()) {
+                priorityStart = tokens.start();
+                priorityEnd = tokens.end();
             }
-
+            String conditions = input.substring(targetEnd, priorityStart).trim();
+            selection = parseFilter(conditions);
+        } else {
             try {
-                int taskNumber = Integer.parseInt(parts[1]);
-                Priority priority = Priority.fromString(parts[2]);
-                return new PriorityCommand(taskNumber, priority);
+                selection = TaskSelection.parse(input, targetStart, targetEnd);
             } catch (NumberFormatException e) {
-                throw new LuffyException("'" + parts[1] + "' is not a valid task number!");
-            } catch (IllegalArgumentException e) {
-                throw new LuffyException(e.getMessage());
+                String targetToken = input.substring(targetStart, targetEnd);
+                throw new LuffyException("'" + targetToken + "' is not a valid task number!");
             }
         }
-
-        // If we get here, it's an unknown command
-        if (!input.isEmpty()) {
-            throw new LuffyException("I don't understand '" + input
-                    + "'! Try: todo, deadline, event, mark, unmark, delete, list, due, find, priority, or bye!");
+        try {
+            Priority priority = Priority.fromString(input, priorityStart, priorityEnd);
+            return new PriorityCommand(selection, priority);
+        } catch (IllegalArgumentException e) {
+            throw new LuffyException(e.getMessage());
         }
-
-        // Empty input - just return null or handle as needed
-        throw new LuffyException("Please enter a command!");
     }
 }
@@ -0,0 +1,116 @@
+package luffy.parser;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+import luffy.exception.LuffyException;
+import luffy.task.Deadline;
+import luffy.task.Event;
+import luffy.task.Priority;
+import luffy.task.Task;
+import luffy.task.Todo;
+
+/**
+ * Parses the conditions after "where" in a bulk command, such as "deadline and due before
+ * 2024-12-08", into a predicate over tasks. Conditions are joined with "and", and a task matches
+ * when it meets every condition. The supported conditions are:
+ *
+ * - "done" and "not done", on the done status;
+ * - "todo", "deadline" and "event", on the type of task;
+ * - "priority LEVEL", on the priority, with any level accepted by the priority command;
+ * - "due before DATE" and "due after DATE", on the due date of a deadline or the end of an event,
+ *   where DATE is in any format accepted by parseDateTime, or "now".
+ *
+ * Tasks whose dates were saved as plain strings have no due date, so they never meet a due
+ * condition.
+ */
+class TaskFilterParser {
+    private static final String CONJUNCTION = "and";
+    private static final String PRIORITY_CONDITION = "priority ";
+    private static final String DUE_BEFORE_CONDITION = "due before ";
+    private static final String DUE_AFTER_CONDITION = "due after ";
+    private static final String NOW = "now";
+
+    /**
+     * Parses the conditions of a bulk command.
+     *
+     * @param conditions the text after "where"
+     * @return a predicate that accepts the tasks meeting every condition
+     * @throws LuffyException if there are no conditions or a condition is not understood
+     */
+    static Predicate<Task> parse(String conditions) throws LuffyException {
+        if (conditions.trim().isEmpty()) {
+            throw new LuffyException("Which tasks? Give me a condition after 'where', like "
+                    + "'where done'!");
+        }
+        Predicate<Task> filter = null;
+        for (String condition : conditions.trim().split("\\s+(?i:" + CONJUNCTION + ")\\s+")) {
+            Predicate<Task> conditionFilter = parseCondition(condition.trim());
+            filter = filter == null ? conditionFilter : filter.and(conditionFilter);
+        }
+        return filter;
+    }
+
+    private static Predicate<Task> parseCondition(String condition) throws LuffyException {
+        // Collapse runs of spaces so that multi-word conditions compare as written here
+        String normalized = condition.replaceAll("\\s+", " ");
+        String lower = normalized.toLowerCase();
+        switch (lower) {
+        case "done":
+            return Task::isDone;
+        case "not done":
+            return task -> !task.isDone();
+        case "todo":
+            return task -> task instanceof Todo;
+        case "deadline":
+            return task -> task instanceof Deadline;
+        case "event":
+            return task -> task instanceof Event;
+        default:
+            break;
+        }
+
+        if (lower.startsWith(PRIORITY_CONDITION)) {
+            try {
+                Priority priority =
+                        Priority.fromString(normalized.substring(PRIORITY_CONDITION.length()));
+                return task -> task.getPriority() == priority;
+            } catch (IllegalArgumentException e) {
+                throw new LuffyException(e.getMessage());
+            }
+        }
+        if (lower.startsWith(DUE_BEFORE_CONDITION)) {
+            LocalDateTime date = parseDate(normalized.substring(DUE_BEFORE_CONDITION.length()));
+            return task -> getDueDate(task) != null && getDueDate(task).isBefore(date);
+        }
+        if (lower.startsWith(DUE_AFTER_CONDITION)) {
+            LocalDateTime date = parseDate(normalized.substring(DUE_AFTER_CONDITION.length()));
+            return task -> getDueDate(task) != null && getDueDate(task).isAfter(date);
+        }
+
+        throw new LuffyException("I don't understand the condition '" + condition + "'! Try: "
+                + "done, not done, todo, deadline, event, priority LEVEL, due before DATE or "
+                + "due after DATE.");
+    }
+
+    private static LocalDateTime parseDate(String date) throws LuffyException {
+        if (date.trim().equalsIgnoreCase(NOW)) {
+            return LocalDateTime.now();
+        }
+        return Parser.parseDateTime(date);
+    }
+
+    /**
+     * Returns when a task is due: the date of a deadline or the end of an event.
+     *
+     * @return the due date, or null for todos and tasks with string dates
+     */
+    private static LocalDateTime getDueDate(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getTo();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,272 @@
+package luffy.storage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import luffy.task.Deadline;
+import luffy.task.Event;
+import luffy.task.Priority;
+import luffy.task.Task;
+import luffy.task.Todo;
+
+/**
+ * Encodes and decodes tasks in the compact binary data file format.
+ *
+ * The file starts with a 4-byte magic number, a version byte and the number of tasks as an int.
+ * Each task is a flags byte followed by its length-prefixed UTF-8 description and its dates. The
+ * flags byte holds the task type (bits 0-1), the done status (bit 2), the priority level (bits
+ * 3-4), whether the dates are LocalDateTimes rather than legacy strings (bit 5) and whether any
+ * date has seconds or nanoseconds (bit 6). Dates are stored as epoch minutes in a long, or as
+ * epoch seconds plus nanoseconds when they are more precise, so every task survives a round trip
+ * through the text format unchanged.
+ *
+ * Version 2 adds the task's ID as an int right after the flags byte, 0 for a task without one.
+ * Files of version 1 are still read, leaving their tasks without IDs.
+ */
+public class BinaryTaskCodec {
+    private static final byte[] MAGIC = {(byte) 0x89, 'L', 'U', 'F'};
+    private static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final int TYPE_MASK = 0x03;
+    private static final int TODO_TYPE = 0;
+    private static final int DEADLINE_TYPE = 1;
+    private static final int EVENT_TYPE = 2;
+    private static final int DONE_FLAG = 0x04;
+    private static final int PRIORITY_SHIFT = 3;
+    private static final int PRIORITY_MASK = 0x03;
+    private static final int DATE_TIME_FLAG = 0x20;
+    private static final int PRECISE_FLAG = 0x40;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    /**
+     * Checks whether the buffer starts with the binary format's magic number. Does not move the
+     * buffer's position.
+     *
+     * @param buffer the start of a data file
+     * @return true if the data is in the binary format
+     */
+    public static boolean hasMagic(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the tasks in the binary format.
+     *
+     * @param tasks the tasks to write
+     * @param out the stream to write to, which is not closed
+     * @throws IOException if the stream cannot be written to
+     */
+    public static void write(ArrayList<Task> tasks, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(tasks.size());
+        for (Task task : tasks) {
+            writeTask(task, data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Writes a single task as a flags byte, its ID, its description and its dates.
+     */
+    private static void writeTask(Task task, DataOutputStream data) throws IOException {
+        int flags = task.getPriority().getLevel() << PRIORITY_SHIFT;
+        if (task.isDone()) {
+            flags |= DONE_FLAG;
+        }
+
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            flags |= DEADLINE_TYPE;
+            if (deadline.hasDateTime()) {
+                flags |= DATE_TIME_FLAG | precisionFlag(deadline.getBy());
+                writeHeader(flags, task, data);
+                writeString(task.getDescription(), data);
+                writeDateTime(deadline.getBy(), flags, data);
+            } else {
+                writeHeader(flags, task, data);
+                writeString(task.getDescription(), data);
+                writeString(deadline.getByAsString(), data);
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            flags |= EVENT_TYPE;
+            if (event.hasDateTime()) {
+                flags |= DATE_TIME_FLAG | precisionFlag(event.getFrom())
+                        | precisionFlag(event.getTo());
+                writeHeader(flags, task, data);
+                writeString(task.getDescription(), data);
+                writeDateTime(event.getFrom(), flags, data);
+                writeDateTime(event.getTo(), flags, data);
+            } else {
+                writeHeader(flags, task, data);
+                writeString(task.getDescription(), data);
+                writeString(event.getFromAsString(), data);
+                writeString(event.getToAsString(), data);
+            }
+        } else {
+            flags |= TODO_TYPE;
+            writeHeader(flags, task, data);
+            writeString(task.getDescription(), data);
+        }
+    }
+
+    private static void writeHeader(int flags, Task task, DataOutputStream data)
+            throws IOException {
+        data.writeByte(flags);
+        data.writeInt(task.getId());
+    }
+
+    /**
+     * Returns PRECISE_FLAG if the date/time cannot be stored in whole minutes.
+     */
+    private static int precisionFlag(LocalDateTime dateTime) {
+        return dateTime.getSecond() != 0 || dateTime.getNano() != 0 ? PRECISE_FLAG : 0;
+    }
+
+    private static void writeDateTime(LocalDateTime dateTime, int flags, DataOutputStream data)
+            throws IOException {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if ((flags & PRECISE_FLAG) != 0) {
+            data.writeLong(epochSecond);
+            data.writeInt(dateTime.getNano());
+        } else {
+            data.writeLong(epochSecond / SECONDS_PER_MINUTE);
+        }
+    }
+
+    private static void writeString(String value, DataOutputStream data) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Reads every task from a buffer holding a file in the binary format, starting at the
+     * buffer's position.
+     *
+     * @param buffer the file contents
+     * @return the tasks in the file, in order
+     * @throws IOException if the data is not in a supported version of the format or is truncated
+     */
+    public static ArrayList<Task> read(ByteBuffer buffer) throws IOException {
+        if (!hasMagic(buffer)) {
+            throw new IOException("Not a binary task file");
+        }
+        buffer.position(buffer.position() + MAGIC.length);
+
+        try {
+            byte version = buffer.get();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unsupported binary task file version " + version);
+            }
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Corrupted binary task file: negative task count");
+            }
+
+            ArrayList<Task> tasks = new ArrayList<>(Math.min(count, buffer.remaining()));
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(buffer, version));
+            }
+            return tasks;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupted binary task file: unexpected end of data");
+        } catch (DateTimeException e) {
+            throw new IOException("Corrupted binary task file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a single task written by writeTask, or by the version of it that had no IDs.
+     */
+    private static Task readTask(ByteBuffer buffer, byte version) throws IOException {
+        int flags = buffer.get() & 0xFF;
+        int id = version == VERSION_WITHOUT_IDS ? Task.NO_ID : buffer.getInt();
+        if (id < Task.NO_ID) {
+            throw new IOException("Corrupted binary task file: negative task ID " + id);
+        }
+        String description = readString(buffer);
+        boolean hasDateTime = (flags & DATE_TIME_FLAG) != 0;
+
+        Task task;
+        switch (flags & TYPE_MASK) {
+        case TODO_TYPE:
+            task = new Todo(description);
+            break;
+        case DEADLINE_TYPE:
+            task = hasDateTime ? new Deadline(description, readDateTime(buffer, flags))
+                    : new Deadline(description, readString(buffer));
+            break;
+        case EVENT_TYPE:
+            task = hasDateTime
+                    ? new Event(description, readDateTime(buffer, flags),
+                            readDateTime(buffer, flags))
+                    : new Event(description, readString(buffer), readString(buffer));
+            break;
+        default:
+            throw new IOException("Corrupted binary task file: unknown task type " + flags);
+        }
+
+        task.setDone((flags & DONE_FLAG) != 0);
+        task.setPriority(priorityOfLevel((flags >> PRIORITY_SHIFT) & PRIORITY_MASK));
+        if (id != Task.NO_ID) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static Priority priorityOfLevel(int level) throws IOException {
+        for (Priority priority : Priority.values()) {
+            if (priority.getLevel() == level) {
+                return priority;
+            }
+        }
+        throw new IOException("Corrupted binary task file: unknown priority level " + level);
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer, int flags) {
+        if ((flags & PRECISE_FLAG) != 0) {
+            long epochSecond = buffer.getLong();
+            int nano = buffer.getInt();
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong() * SECONDS_PER_MINUTE, 0,
+                ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Corrupted binary task file: bad string length " + length);
+        }
+
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
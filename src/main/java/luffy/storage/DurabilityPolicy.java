@@ -0,0 +1,69 @@
+package luffy.storage;
+
+/**
+ * Represents how journaled changes are persisted and when a command may return after making a
+ * change. SYNCHRONOUS writes each record before returning. The other policies hand records to a
+ * single background writer that coalesces records arriving within a batch window into one write.
+ * Under FSYNC_PER_BATCH every command waits for its record, so a batch is made of the records
+ * queued while the previous batch was being synced rather than of a window.
+ */
+public enum DurabilityPolicy {
+    SYNCHRONOUS(0, false, true),
+    FIRE_AND_FORGET(5, false, false),
+    FLUSH_ON_INTERVAL(200, true, false),
+    FSYNC_PER_BATCH(0, true, true);
+
+    private final long defaultBatchWindowMillis;
+    private final boolean isForced;
+    private final boolean isAwaited;
+
+    /**
+     * Creates a DurabilityPolicy with the specified batching and durability behaviour.
+     *
+     * @param defaultBatchWindowMillis how long the writer gathers records before writing them
+     * @param isForced whether each batch is synced to the storage device
+     * @param isAwaited whether a command waits until its record has been written
+     */
+    DurabilityPolicy(long defaultBatchWindowMillis, boolean isForced, boolean isAwaited) {
+        this.defaultBatchWindowMillis = defaultBatchWindowMillis;
+        this.isForced = isForced;
+        this.isAwaited = isAwaited;
+    }
+
+    /**
+     * Returns how long the background writer gathers records before writing them, unless
+     * overridden on the Storage.
+     *
+     * @return the default batch window in milliseconds
+     */
+    public long getDefaultBatchWindowMillis() {
+        return defaultBatchWindowMillis;
+    }
+
+    /**
+     * Returns whether each written batch is synced to the storage device.
+     *
+     * @return true if batches are forced to disk
+     */
+    public boolean isForced() {
+        return isForced;
+    }
+
+    /**
+     * Returns whether a command waits until its record has been written before returning.
+     *
+     * @return true if commands wait for their record to be written
+     */
+    public boolean isAwaited() {
+        return isAwaited;
+    }
+
+    /**
+     * Returns whether records are written by the background writer rather than by the command.
+     *
+     * @return true for every policy except SYNCHRONOUS
+     */
+    public boolean isWriteBehind() {
+        return this != SYNCHRONOUS;
+    }
+}
@@ -0,0 +1,124 @@
+package luffy.storage;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds the journal of a Storage into a fresh snapshot on a background thread once the journal
+ * grows past a configurable number of records or bytes. This keeps the journal, and therefore the
+ * replay work done on startup, bounded no matter how long the application has been running.
+ */
+public class JournalCompactor {
+    private static final int DEFAULT_MAX_RECORDS = 1000;
+    private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+    private static final String THREAD_NAME = "luffy-journal-compactor";
+
+    private Storage storage;
+    private int maxRecords;
+    private long maxBytes;
+    private ExecutorService executor;
+    private Future<?> lastCompaction;
+    private final AtomicBoolean isCompactionScheduled;
+
+    /**
+     * Creates a new JournalCompactor for the specified storage with the default thresholds.
+     *
+     * @param storage the storage whose journal is compacted
+     */
+    public JournalCompactor(Storage storage) {
+        assert storage != null : "Storage cannot be null";
+        this.storage = storage;
+        this.maxRecords = DEFAULT_MAX_RECORDS;
+        this.maxBytes = DEFAULT_MAX_BYTES;
+        this.isCompactionScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Sets the journal size at which a compaction is triggered. A threshold that is zero or
+     * negative is ignored, so compaction can be driven by record count alone or by bytes alone.
+     *
+     * @param maxRecords the number of journal records that triggers a compaction
+     * @param maxBytes the journal size in bytes that triggers a compaction
+     */
+    public void setThreshold(int maxRecords, long maxBytes) {
+        this.maxRecords = maxRecords;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Checks whether the journal has grown past either threshold.
+     *
+     * @param journal the journal to check
+     * @return true if the journal should be compacted
+     */
+    public boolean isThresholdReached(TaskJournal journal) {
+        boolean hasTooManyRecords = maxRecords > 0 && journal.getRecordCount() >= maxRecords;
+        boolean hasTooManyBytes = maxBytes > 0 && journal.getByteCount() >= maxBytes;
+        return hasTooManyRecords || hasTooManyBytes;
+    }
+
+    /**
+     * Schedules a background compaction if the journal has grown past a threshold and no
+     * compaction is already scheduled.
+     *
+     * @param journal the journal to check
+     */
+    public void compactIfNeeded(TaskJournal journal) {
+        if (!isThresholdReached(journal) || !isCompactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            lastCompaction = executor.submit(this::runCompaction);
+        }
+    }
+
+    /**
+     * Runs a single compaction on the background thread, reporting failures instead of throwing
+     * them since nobody is waiting on the result.
+     */
+    private void runCompaction() {
+        try {
+            storage.compact();
+        } catch (IOException e) {
+            System.out.println("OOPS!!! Couldn't compact the task journal: " + e.getMessage());
+        } finally {
+            isCompactionScheduled.set(false);
+        }
+    }
+
+    /**
+     * Blocks until the most recently scheduled compaction, if any, has finished.
+     *
+     * @throws IOException if the thread is interrupted while waiting
+     */
+    public void awaitCompaction() throws IOException {
+        Future<?> compaction;
+        synchronized (this) {
+            compaction = lastCompaction;
+        }
+        if (compaction == null) {
+            return;
+        }
+
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for journal compaction", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Journal compaction failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package luffy.storage;
+
+import java.util.Arrays;
+
+/**
+ * Remembers where the line of each task lies in a text data file, so that a changed task can be
+ * written over its own line instead of rewriting the whole file. Offsets and lengths are in bytes
+ * and exclude the line terminator. The index belongs to one version of the file, identified by its
+ * length; it is only trusted while the file still has that length.
+ */
+class RecordIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int size;
+    private long fileLength = -1; // Negative while the index describes no file
+
+    /**
+     * Appends the position of the next task's line.
+     *
+     * @param offset the byte offset of the line in the file
+     * @param length the length of the line in bytes, without its terminator
+     */
+    void add(long offset, int length) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        offsets[size] = offset;
+        lengths[size] = length;
+        size++;
+    }
+
+    /**
+     * Appends every line position of another index, such as the index of a later chunk of the
+     * same file.
+     *
+     * @param other the index to append
+     */
+    void addAll(RecordIndex other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.offsets[i], other.lengths[i]);
+        }
+    }
+
+    /**
+     * Marks the index as complete for a file of the given length.
+     *
+     * @param fileLength the length of the indexed file in bytes
+     */
+    void complete(long fileLength) {
+        this.fileLength = fileLength;
+    }
+
+    /**
+     * Forgets every line position, so that the index describes no file.
+     */
+    void invalidate() {
+        size = 0;
+        fileLength = -1;
+    }
+
+    /**
+     * Returns whether the index describes a file of the given length holding the given number of
+     * tasks.
+     *
+     * @param currentFileLength the current length of the data file
+     * @param taskCount the number of tasks the caller expects the file to hold
+     * @return true if the index can be used to patch the file
+     */
+    boolean isValidFor(long currentFileLength, int taskCount) {
+        return fileLength >= 0 && fileLength == currentFileLength && size == taskCount;
+    }
+
+    long getOffset(int index) {
+        return offsets[index];
+    }
+
+    int getLength(int index) {
+        return lengths[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,24 +1,42 @@
 package luffy.storage;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.FileReader;
-import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+import luffy.metrics.StorageEvent;
 import luffy.task.Task;
 import luffy.task.Todo;
 import luffy.task.Deadline;
 import luffy.task.Event;
-import luffy.task.Priority;
 import luffy.util.DateTimeUtil;
 
 /**
  * Handles the loading and saving of tasks to and from the file. This class manages file I/O
  * operations for task persistence, supporting both new LocalDateTime-based tasks and legacy
  * string-based tasks for backward compatibility. The file format uses pipe-separated values with
- * different formats for each task type.
+ * different formats for each task type, or optionally a compact binary format (see
+ * BinaryTaskCodec); loading detects which one a file uses.
+ *
+ * In journaled mode, single-task mutations are appended to a journal file next to the data file
+ * instead of rewriting every task; the data file then acts as the last snapshot. Once the journal
+ * grows past a threshold it is folded into a fresh snapshot on a background thread. Journal records
+ * can also be written behind the command by a background writer, as set by the DurabilityPolicy.
+ *
+ * Without the journal, a change of done status of a single task of a text data file is written
+ * over that task's own line, which keeps its length; the whole file is only rewritten when the
+ * line cannot be patched. Luffy itself always runs with the journal, so this only serves callers
+ * that disable it.
  */
 public class Storage {
     // File format constants
@@ -26,14 +44,30 @@ public class Storage {
     private static final String TODO_MARKER = "T";
     private static final String DEADLINE_MARKER = "D";
     private static final String EVENT_MARKER = "E";
+    private static final String ID_SEPARATOR = "#";
     private static final String DATA_DIRECTORY = "data";
     private static final int DONE_STATUS = 1;
     private static final int NOT_DONE_STATUS = 0;
-    private static final int MIN_PARTS_COUNT = 4;
-    private static final int TODO_PARTS_COUNT = 4;
-    private static final int DEADLINE_PARTS_COUNT = 5;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String PENDING_JOURNAL_SUFFIX = ".journal.compacting";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String CHECKSUM_SUFFIX = ".crc";
 
     private String filePath;
+    private TaskJournal journal;
+    private TaskJournal pendingJournal; // Journal taken over by a compaction in progress
+    private JournalCompactor compactor;
+    private WriteBehindWriter writer; // Null unless the durability policy writes behind
+    private DurabilityPolicy durabilityPolicy;
+    private StorageFormat format;
+    private boolean isJournalEnabled;
+    private boolean isParallelLoadEnabled;
+    private boolean isBatching; // Changes are only persisted when the batch ends
+    private boolean hasBatchedChanges;
+    private long bytesWritten; // Written by saves of the caller, not by background compactions
+    private long writeNanos;
+    private final RecordIndex recordIndex = new RecordIndex(); // Lines of the data file, if text
+    private final Object snapshotLock = new Object();
 
     /**
      * Creates a new Storage instance with the specified file path.
@@ -44,6 +78,13 @@ public class Storage {
         assert filePath != null : "File path cannot be null";
         assert !filePath.trim().isEmpty() : "File path cannot be empty";
         this.filePath = filePath;
+        this.journal = new TaskJournal(filePath + JOURNAL_SUFFIX);
+        this.pendingJournal = new TaskJournal(filePath + PENDING_JOURNAL_SUFFIX);
+        this.compactor = new JournalCompactor(this);
+        this.durabilityPolicy = DurabilityPolicy.SYNCHRONOUS;
+        this.format = StorageFormat.TEXT;
+        this.isJournalEnabled = false;
+        this.isParallelLoadEnabled = false;
     }
 
     /**
@@ -55,53 +96,659 @@ public class Storage {
         return filePath;
     }
 
+    /**
+     * Sets the format in which snapshots of the task list are written. Files in either format can
+     * always be loaded, so switching format takes effect on the next full save or compaction.
+     *
+     * @param format the format to write snapshots in
+     */
+    public void setFormat(StorageFormat format) {
+        assert format != null : "Storage format cannot be null";
+        this.format = format;
+    }
+
+    /**
+     * Returns the format in which snapshots of the task list are written.
+     *
+     * @return the storage format
+     */
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Converts a data file from one format to the other without losing any task data. Any journal
+     * of the source file is applied, so the target holds the current task list.
+     *
+     * @param sourcePath the path of the data file to convert
+     * @param targetPath the path of the converted data file
+     * @param targetFormat the format of the converted data file
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void convert(String sourcePath, String targetPath, StorageFormat targetFormat)
+            throws IOException {
+        ArrayList<Task> tasks = new Storage(sourcePath).load();
+        Storage target = new Storage(targetPath);
+        target.setFormat(targetFormat);
+        target.save(tasks);
+    }
+
+    /**
+     * Returns the path of the journal file that accompanies the data file.
+     *
+     * @return the journal file path
+     */
+    public String getJournalPath() {
+        return journal.getJournalPath();
+    }
+
+    /**
+     * Enables or disables journaled mode. When enabled, saveAdd, saveStatus, saveDelete and
+     * savePriority append a single journal record instead of rewriting the whole file.
+     *
+     * @param isJournalEnabled true to journal single-task mutations, false to rewrite the file
+     */
+    public void setJournalEnabled(boolean isJournalEnabled) {
+        this.isJournalEnabled = isJournalEnabled;
+    }
+
+    /**
+     * Returns whether this Storage journals single-task mutations.
+     *
+     * @return true if journaled mode is enabled
+     */
+    public boolean isJournalEnabled() {
+        return isJournalEnabled;
+    }
+
+    /**
+     * Enables or disables parallel loading. When enabled, a large text data file is split into
+     * chunks at line boundaries that are decoded in parallel; the loaded tasks and any error
+     * messages come out in the same order as with sequential loading.
+     *
+     * @param isParallelLoadEnabled true to decode large data files in parallel
+     */
+    public void setParallelLoadEnabled(boolean isParallelLoadEnabled) {
+        this.isParallelLoadEnabled = isParallelLoadEnabled;
+    }
+
+    /**
+     * Returns whether this Storage decodes large data files in parallel.
+     *
+     * @return true if parallel loading is enabled
+     */
+    public boolean isParallelLoadEnabled() {
+        return isParallelLoadEnabled;
+    }
+
+    /**
+     * Sets how journal records are persisted, using the policy's default batch window. Pending
+     * records of the previous policy are flushed first. Only journaled mutations are affected;
+     * full saves are always written before returning.
+     *
+     * @param durabilityPolicy the new durability policy
+     * @throws IOException if pending records cannot be flushed
+     */
+    public void setDurabilityPolicy(DurabilityPolicy durabilityPolicy) throws IOException {
+        setDurabilityPolicy(durabilityPolicy, durabilityPolicy.getDefaultBatchWindowMillis());
+    }
+
+    /**
+     * Sets how journal records are persisted and how long the background writer gathers records
+     * into one batch. Pending records of the previous policy are flushed first.
+     *
+     * @param durabilityPolicy the new durability policy
+     * @param batchWindowMillis how long the background writer gathers records before writing
+     * @throws IOException if pending records cannot be flushed
+     */
+    public void setDurabilityPolicy(DurabilityPolicy durabilityPolicy, long batchWindowMillis)
+            throws IOException {
+        assert durabilityPolicy != null : "Durability policy cannot be null";
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        this.durabilityPolicy = durabilityPolicy;
+        if (durabilityPolicy.isWriteBehind()) {
+            writer = new WriteBehindWriter(journal, durabilityPolicy, batchWindowMillis);
+        }
+    }
+
+    /**
+     * Returns how journal records are persisted.
+     *
+     * @return the durability policy
+     */
+    public DurabilityPolicy getDurabilityPolicy() {
+        return durabilityPolicy;
+    }
+
+    /**
+     * Blocks until every journal record handed to the background writer has been written. Does
+     * nothing under the SYNCHRONOUS policy.
+     *
+     * @throws IOException if a pending record cannot be written
+     */
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Sets the journal size at which the journal is folded into a fresh snapshot in the
+     * background. A threshold that is zero or negative is ignored.
+     *
+     * @param maxRecords the number of journal records that triggers a compaction
+     * @param maxBytes the journal size in bytes that triggers a compaction
+     */
+    public void setCompactionThreshold(int maxRecords, long maxBytes) {
+        compactor.setThreshold(maxRecords, maxBytes);
+    }
+
+    /**
+     * Blocks until any background compaction that is in progress has finished.
+     *
+     * @throws IOException if waiting is interrupted or the compaction failed
+     */
+    public void awaitCompaction() throws IOException {
+        compactor.awaitCompaction();
+    }
+
     /**
      * Saves the task list to the file in a pipe-separated format. Creates the data directory if it
      * doesn't exist. Supports both LocalDateTime-based tasks (saved in ISO format) and legacy
-     * string-based tasks (saved in original format).
+     * string-based tasks (saved in original format). Since the file then holds every task, any
+     * existing journal is cleared.
+     *
+     * The tasks are written to a temporary file next to the data file, which is synced to disk and
+     * then atomically renamed over the data file, so a crash during the save leaves the previous
+     * data file intact.
      *
      * @param tasks the list of tasks to save
      * @throws IOException if the file cannot be written to
      */
     public void save(ArrayList<Task> tasks) throws IOException {
         assert tasks != null : "Task list cannot be null";
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes;
+        // Queued records are already reflected in tasks and must not land after the snapshot
+        try {
+            flush();
+        } catch (IOException e) {
+            // The snapshot contains the records that could not be written, so it replaces them
+            writer.discardUnwrittenRecords();
+        }
+        synchronized (snapshotLock) {
+            replaceSnapshot(tasks, pendingJournal, journal);
+            bytes = new File(filePath).length();
+        }
+        bytesWritten += bytes;
+        writeNanos += System.nanoTime() - start;
+        commitEvent(event, StorageEvent.SAVE, bytes, tasks.size());
+    }
+
+    /**
+     * Ends a Flight Recorder event and commits it with the given details, if it is enabled.
+     *
+     * @param event the event, begun when the operation started
+     * @param operation the kind of operation
+     * @param bytes the number of bytes read or written
+     * @param records the number of tasks or records read or written
+     */
+    private void commitEvent(StorageEvent event, String operation, long bytes, int records) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = filePath;
+            event.bytes = bytes;
+            event.records = records;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the number of bytes this Storage has written to the data file and journal for the
+     * changes passed to it. Journal records handed to a background writer are counted when they
+     * are handed over, and background compactions are not counted.
+     *
+     * @return the total number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the time spent writing the changes passed to this Storage, in the same cases as
+     * getBytesWritten.
+     *
+     * @return the total time spent writing, in nanoseconds
+     */
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * Replaces the data file with a snapshot of the given tasks by writing them to the temporary
+     * file, syncing it to disk and renaming it over the data file. The journals whose records the
+     * snapshot contains are folded just before the rename and their folded files deleted after it,
+     * so the rename alone decides whether those records are part of the data file. A crash in
+     * between is resolved by recoverInterruptedSave.
+     *
+     * @param tasks the list of tasks to write
+     * @param containedJournals the journals whose records are contained in the tasks
+     * @throws IOException if the snapshot cannot be written or moved into place
+     */
+    private void replaceSnapshot(ArrayList<Task> tasks, TaskJournal... containedJournals)
+            throws IOException {
+        String tempPath = getTempPath();
+        writeSnapshot(tasks, tempPath);
+        for (TaskJournal containedJournal : containedJournals) {
+            containedJournal.fold();
+        }
+
+        Path source = new File(tempPath).toPath();
+        Path target = new File(filePath).toPath();
+        try {
+            try {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // The data file may be gone before the move ends, so let recovery check the copy
+                writeChecksum(source);
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+                Files.deleteIfExists(getChecksumPath());
+            }
+        } catch (IOException e) {
+            // Put the folded journals back, or the snapshot in place, as after a crash
+            recoverInterruptedSave();
+            throw e;
+        }
+        for (TaskJournal containedJournal : containedJournals) {
+            containedJournal.clearFolded();
+        }
+    }
+
+    /**
+     * Writes every task to the given path in the configured format and syncs the file to disk,
+     * creating the data directory if it doesn't exist.
+     *
+     * @param tasks the list of tasks to write
+     * @param path the path of the file to write
+     * @throws IOException if the file cannot be written to
+     */
+    private void writeSnapshot(ArrayList<Task> tasks, String path) throws IOException {
         // Create data directory if it doesn't exist
         File dataDir = new File(DATA_DIRECTORY);
         if (!dataDir.exists()) {
             dataDir.mkdirs();
         }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (Task task : tasks) {
-                String line = formatTaskForFile(task);
-                writer.write(line + System.lineSeparator());
+        try (FileOutputStream output = new FileOutputStream(path)) {
+            OutputStream out = new BufferedOutputStream(output);
+            if (format == StorageFormat.BINARY) {
+                recordIndex.invalidate();
+                BinaryTaskCodec.write(tasks, out);
+            } else {
+                writeLines(tasks, out);
+            }
+            out.flush();
+            output.getFD().sync();
+        }
+    }
+
+    /**
+     * Writes every task as a line of the text format, recording where each line lies. The data
+     * file is only ever replaced by the file being written, so the recorded positions hold for
+     * the data file once it is moved into place.
+     *
+     * @param tasks the list of tasks to write
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    private void writeLines(ArrayList<Task> tasks, OutputStream out) throws IOException {
+        recordIndex.invalidate();
+        byte[] separator = System.lineSeparator().getBytes();
+        long offset = 0;
+        for (Task task : tasks) {
+            byte[] line = formatTaskForFile(task).getBytes();
+            out.write(line);
+            out.write(separator);
+            recordIndex.add(offset, line.length);
+            offset += line.length + separator.length;
+        }
+        recordIndex.complete(offset);
+    }
+
+    /**
+     * Returns the path of the temporary file that snapshots are written to before they replace
+     * the data file.
+     *
+     * @return the temporary file path
+     */
+    public String getTempPath() {
+        return filePath + TEMP_FILE_SUFFIX;
+    }
+
+    /**
+     * Records the length and CRC-32 of a complete temporary file, synced to disk, so that recovery
+     * can tell it apart from a truncated one. Only needed before a move that is not atomic, which
+     * may remove the data file before the temporary file takes its place.
+     *
+     * @param tempFile the complete temporary file
+     * @throws IOException if the file cannot be read or the checksum cannot be written
+     */
+    private void writeChecksum(Path tempFile) throws IOException {
+        try (FileOutputStream output = new FileOutputStream(getChecksumPath().toFile())) {
+            output.write(computeChecksum(tempFile).getBytes());
+            output.getFD().sync();
+        }
+    }
+
+    /**
+     * Checks whether the temporary file matches the checksum recorded before a non-atomic move.
+     *
+     * @param tempFile the temporary file
+     * @return true if a checksum was recorded and the file matches it
+     * @throws IOException if the file or checksum cannot be read
+     */
+    private boolean isChecksumValid(Path tempFile) throws IOException {
+        Path checksumPath = getChecksumPath();
+        if (!Files.exists(checksumPath)) {
+            return false;
+        }
+        return Files.readString(checksumPath).trim().equals(computeChecksum(tempFile));
+    }
+
+    /**
+     * Returns the length and CRC-32 of a file, as in "1234 9e83486d".
+     */
+    private static String computeChecksum(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return bytes.length + " " + Long.toHexString(crc.getValue());
+    }
+
+    private Path getChecksumPath() {
+        return new File(getTempPath() + CHECKSUM_SUFFIX).toPath();
+    }
+
+    /**
+     * Deals with a temporary file and folded journals left behind by a save or compaction that was
+     * interrupted. If the data file is missing and the temporary file matches the checksum taken
+     * before a non-atomic move, the crash happened after the old data file was removed, so the
+     * temporary file is moved into place. Otherwise the data file still holds the last completed
+     * save, or there was none yet, and the temporary file, which may be truncated, is discarded.
+     *
+     * The temporary file only disappears when it replaces the data file, so folded journals are
+     * deleted if it is gone or moved into place, as the data file then contains their records, and
+     * are restored if it is discarded.
+     *
+     * @throws IOException if the temporary file or a folded journal cannot be moved or deleted
+     */
+    private void recoverInterruptedSave() throws IOException {
+        File tempFile = new File(getTempPath());
+        File file = new File(filePath);
+        boolean isSnapshotReplaced = true;
+        if (tempFile.exists() && !file.exists() && isChecksumValid(tempFile.toPath())) {
+            Files.move(tempFile.toPath(), file.toPath());
+        } else if (tempFile.exists()) {
+            Files.delete(tempFile.toPath());
+            isSnapshotReplaced = false;
+        }
+        Files.deleteIfExists(getChecksumPath());
+
+        for (TaskJournal containedJournal : new TaskJournal[] {pendingJournal, journal}) {
+            if (isSnapshotReplaced) {
+                containedJournal.clearFolded();
+            } else {
+                containedJournal.restoreFolded();
             }
         }
     }
 
     /**
-     * Formats a task for file storage in pipe-separated format.
+     * Folds the journal into a fresh snapshot. The journal is first moved aside so that commands
+     * can keep appending while the snapshot is rebuilt from the data file and the moved records.
+     * The snapshot then replaces the data file in the same crash-safe way as a full save, which
+     * discards the moved records with it. Normally run by the background compactor.
+     *
+     * @throws IOException if the snapshot or journal cannot be read or written
+     */
+    public void compact() throws IOException {
+        synchronized (snapshotLock) {
+            journal.rotateTo(pendingJournal);
+            ArrayList<Task> tasks = readSnapshot();
+            pendingJournal.replay(tasks);
+
+            replaceSnapshot(tasks, pendingJournal);
+        }
+    }
+
+    /**
+     * Starts a batch of changes. Until endBatch is called, changes passed to saveAdd, saveStatus,
+     * saveDelete and savePriority are not written, and the batch is persisted as a single save
+     * when it ends. Changes made during a batch are lost if the program stops before it ends.
+     */
+    public void beginBatch() {
+        isBatching = true;
+    }
+
+    /**
+     * Ends the current batch, saving the task list once if any change was made during the batch.
+     *
+     * @param tasks the full task list, containing every change made during the batch
+     * @throws IOException if the file cannot be written to
+     */
+    public void endBatch(ArrayList<Task> tasks) throws IOException {
+        isBatching = false;
+        if (hasBatchedChanges) {
+            hasBatchedChanges = false;
+            save(tasks);
+        }
+    }
+
+    /**
+     * Returns whether a batch of changes is in progress.
+     *
+     * @return true between beginBatch and endBatch
+     */
+    public boolean isBatching() {
+        return isBatching;
+    }
+
+    /**
+     * Records a change made during a batch, to be persisted when the batch ends.
+     *
+     * @return true if a batch is in progress and the change need not be written now
+     */
+    private boolean deferToBatch() {
+        if (isBatching) {
+            hasBatchedChanges = true;
+        }
+        return isBatching;
+    }
+
+    /**
+     * Persists changes to any number of tasks with a single save of the whole list, or when the
+     * current batch ends if one is in progress.
+     *
+     * @param tasks the full task list, already containing the changes
+     * @throws IOException if the file cannot be written to
+     */
+    public void saveAll(ArrayList<Task> tasks) throws IOException {
+        if (deferToBatch()) {
+            return;
+        }
+        save(tasks);
+    }
+
+    /**
+     * Persists the addition of a task to the end of the list.
+     *
+     * @param tasks the full task list, already containing the new task
+     * @param task the task that was added
+     * @throws IOException if the file or journal cannot be written to
+     */
+    public void saveAdd(ArrayList<Task> tasks, Task task) throws IOException {
+        if (deferToBatch()) {
+            return;
+        }
+        if (!isJournalEnabled) {
+            save(tasks);
+            return;
+        }
+        appendRecord(TaskJournal.addRecord(formatTaskForFile(task)));
+    }
+
+    /**
+     * Persists a change in the done status of the task at the given index.
+     *
+     * @param tasks the full task list, already containing the change
+     * @param index the 0-based index of the changed task
+     * @throws IOException if the file or journal cannot be written to
+     */
+    public void saveStatus(ArrayList<Task> tasks, int index) throws IOException {
+        if (deferToBatch()) {
+            return;
+        }
+        if (!isJournalEnabled) {
+            if (!patchRecord(tasks, index)) {
+                save(tasks);
+            }
+            return;
+        }
+        appendRecord(TaskJournal.statusRecord(index, tasks.get(index).isDone()));
+    }
+
+    /**
+     * Persists the removal of the task that was at the given index.
+     *
+     * @param tasks the full task list, with the task already removed
+     * @param index the 0-based index the removed task had
+     * @throws IOException if the file or journal cannot be written to
+     */
+    public void saveDelete(ArrayList<Task> tasks, int index) throws IOException {
+        if (deferToBatch()) {
+            return;
+        }
+        if (!isJournalEnabled) {
+            save(tasks);
+            return;
+        }
+        appendRecord(TaskJournal.deleteRecord(index));
+    }
+
+    /**
+     * Persists a change in the priority of the task at the given index.
+     *
+     * @param tasks the full task list, already containing the change
+     * @param index the 0-based index of the changed task
+     * @throws IOException if the file or journal cannot be written to
+     */
+    public void savePriority(ArrayList<Task> tasks, int index) throws IOException {
+        if (deferToBatch()) {
+            return;
+        }
+        if (!isJournalEnabled) {
+            save(tasks); // Priority names differ in length, so the line cannot be patched
+            return;
+        }
+        appendRecord(TaskJournal.priorityRecord(index, tasks.get(index).getPriority()));
+    }
+
+    /**
+     * Writes the current line of the task at the given index over its line in the text data file,
+     * if the data file is still the one last saved or loaded by this Storage, no journal records
+     * are waiting to be replayed on top of it and the line keeps its length. The file is synced
+     * to disk before returning.
+     *
+     * @param tasks the full task list, already containing the change
+     * @param index the 0-based index of the changed task
+     * @return true if the file was patched, false if it must be rewritten instead
+     * @throws IOException if the file cannot be written to
+     */
+    private boolean patchRecord(ArrayList<Task> tasks, int index) throws IOException {
+        synchronized (snapshotLock) {
+            File file = new File(filePath);
+            if (format != StorageFormat.TEXT || hasJournal()
+                    || !recordIndex.isValidFor(file.length(), tasks.size())) {
+                return false;
+            }
+            byte[] line = formatTaskForFile(tasks.get(index)).getBytes();
+            if (line.length != recordIndex.getLength(index)) {
+                return false;
+            }
+
+            StorageEvent event = new StorageEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                long position = recordIndex.getOffset(index);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(false);
+            }
+            bytesWritten += line.length;
+            writeNanos += System.nanoTime() - start;
+            commitEvent(event, StorageEvent.PATCH, line.length, 1);
+            return true;
+        }
+    }
+
+    /**
+     * Appends a record to the journal, directly or through the background writer, and schedules
+     * a compaction if the journal has grown too large.
+     *
+     * @param record the journal record to append
+     * @throws IOException if the journal cannot be written to
+     */
+    private void appendRecord(String record) throws IOException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (writer == null) {
+            journal.append(record);
+        } else {
+            writer.submit(record);
+        }
+        long bytes = record.getBytes().length + System.lineSeparator().length();
+        bytesWritten += bytes;
+        writeNanos += System.nanoTime() - start;
+        commitEvent(event, StorageEvent.JOURNAL, bytes, 1);
+        compactor.compactIfNeeded(journal);
+    }
+
+    /**
+     * Formats a task for file storage in pipe-separated format. A task with an ID has it appended
+     * to its type marker, as in "T#12 | 0 | NORMAL | read book".
      *
      * @param task the task to format
      * @return the formatted string representation of the task
      */
-    private String formatTaskForFile(Task task) {
+    static String formatTaskForFile(Task task) {
         int status = task.isDone() ? DONE_STATUS : NOT_DONE_STATUS;
+        String id = task.getId() == Task.NO_ID ? "" : ID_SEPARATOR + task.getId();
         String priority = task.getPriority().name();
 
         if (task instanceof Todo) {
-            return TODO_MARKER + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
+            return TODO_MARKER + id + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
                     + TASK_SEPARATOR + task.getDescription();
         } else if (task instanceof Deadline) {
             Deadline deadline = (Deadline) task;
             if (deadline.hasDateTime()) {
                 // Save LocalDateTime in ISO format for new data
-                return DEADLINE_MARKER + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
+                return DEADLINE_MARKER + id + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
                         + TASK_SEPARATOR + task.getDescription() + TASK_SEPARATOR
                         + DateTimeUtil.formatDateTimeForFile(deadline.getBy());
             } else {
                 // Save as string for backward compatibility
-                return DEADLINE_MARKER + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
+                return DEADLINE_MARKER + id + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
                         + TASK_SEPARATOR + task.getDescription() + TASK_SEPARATOR
                         + deadline.getByAsString();
             }
@@ -109,13 +756,13 @@ public class Storage {
             Event event = (Event) task;
             if (event.hasDateTime()) {
                 // Save LocalDateTime in ISO format for new data (separate from and to fields)
-                return EVENT_MARKER + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
+                return EVENT_MARKER + id + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
                         + TASK_SEPARATOR + task.getDescription() + TASK_SEPARATOR
                         + DateTimeUtil.formatDateTimeForFile(event.getFrom()) + TASK_SEPARATOR
                         + DateTimeUtil.formatDateTimeForFile(event.getTo());
             } else {
                 // Save as combined string for backward compatibility
-                return EVENT_MARKER + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
+                return EVENT_MARKER + id + TASK_SEPARATOR + status + TASK_SEPARATOR + priority
                         + TASK_SEPARATOR + task.getDescription() + TASK_SEPARATOR
                         + event.getDuration();
             }
@@ -126,152 +773,73 @@ public class Storage {
     /**
      * Loads tasks from the file, parsing each line according to the task format. Supports both new
      * LocalDateTime-based format and legacy string-based format. Handles corrupted data gracefully
-     * by skipping invalid lines and printing error messages. Returns an empty list if the file
-     * doesn't exist.
+     * by skipping invalid lines and printing error messages. Any mutations recorded in the journal
+     * since the last snapshot are replayed on top of the loaded tasks. Returns an empty list if
+     * neither the file nor a journal exists. A temporary file left behind by an interrupted save
+     * is recovered or discarded first.
      *
      * @return ArrayList of tasks loaded from file, empty if file doesn't exist
      * @throws IOException if the file cannot be read
      */
     public ArrayList<Task> load() throws IOException {
-        ArrayList<Task> tasks = new ArrayList<>();
-        File file = new File(filePath);
-        if (!file.exists()) {
-            return tasks; // Return empty list if file doesn't exist
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        ArrayList<Task> tasks;
+        flush();
+        synchronized (snapshotLock) {
+            recoverInterruptedSave();
+            tasks = readSnapshot(recordIndex);
+            if (hasJournal()) {
+                // The tasks no longer match the lines of the data file
+                recordIndex.invalidate();
+            }
+            pendingJournal.replay(tasks);
+            journal.replay(tasks);
         }
+        commitEvent(event, StorageEvent.LOAD, new File(filePath).length(), tasks.size());
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int lineNumber = 0;
+        if (isJournalEnabled) {
+            compactor.compactIfNeeded(journal);
+        }
+        return tasks;
+    }
 
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-                if (line.isEmpty()) {
-                    continue; // Skip empty lines
-                }
+    /**
+     * Reads the tasks stored in the data file, without applying the journal.
+     *
+     * @return ArrayList of tasks in the data file, empty if the file doesn't exist
+     * @throws IOException if the file cannot be read
+     */
+    private ArrayList<Task> readSnapshot() throws IOException {
+        return readSnapshot(null);
+    }
 
-                try {
-                    String[] parts = line.split(" \\| ");
-                    if (parts.length < MIN_PARTS_COUNT) {
-                        System.out.println(
-                                "OOPS!!! Corrupted data found at line " + lineNumber + ": " + line);
-                        continue;
-                    }
-
-                    String taskType = parts[0].trim();
-                    int status = Integer.parseInt(parts[1].trim());
-
-                    // Handle both old format (without priority) and new format (with priority)
-                    Priority priority = Priority.NORMAL; // Default for old format
-                    String description;
-                    int descriptionIndex = 2;
-
-                    // Check if this is new format with priority
-                    if (parts.length >= MIN_PARTS_COUNT) {
-                        try {
-                            priority = Priority.valueOf(parts[2].trim());
-                            description = parts[3].trim();
-                            descriptionIndex = 3;
-                        } catch (IllegalArgumentException e) {
-                            // Old format without priority, parts[2] is description
-                            description = parts[2].trim();
-                            descriptionIndex = 2;
-                        }
-                    } else {
-                        description = parts[2].trim();
-                    }
-
-                    Task task = null;
-
-                    if (taskType.equals(TODO_MARKER)) {
-                        // Handle both old (3 parts) and new (4 parts) format
-                        if (parts.length != TODO_PARTS_COUNT && parts.length != 3) {
-                            System.out.println("OOPS!!! Corrupted Todo data at line " + lineNumber
-                                    + ": " + line);
-                            continue;
-                        }
-                        task = new Todo(description);
-                    } else if (taskType.equals(DEADLINE_MARKER)) {
-                        // Handle both old (4 parts) and new (5 parts) format
-                        if (parts.length != DEADLINE_PARTS_COUNT && parts.length != 4) {
-                            System.out.println("OOPS!!! Corrupted Deadline data at line "
-                                    + lineNumber + ": " + line);
-                            continue;
-                        }
-                        String byString = parts[descriptionIndex + 1].trim();
-
-                        // Try to parse as ISO LocalDateTime first (new format)
-                        try {
-                            LocalDateTime by = DateTimeUtil.parseDateTimeFromFile(byString);
-                            task = new Deadline(description, by);
-                        } catch (Exception e) {
-                            // If ISO parsing fails, treat as old string format
-                            task = new Deadline(description, byString);
-                        }
-                    } else if (taskType.equals(EVENT_MARKER)) {
-                        if (parts.length == 6) {
-                            // New format with priority: E | status | priority | description |
-                            // from_iso | to_iso
-                            String fromString = parts[descriptionIndex + 1].trim();
-                            String toString = parts[descriptionIndex + 2].trim();
-
-                            try {
-                                LocalDateTime from = DateTimeUtil.parseDateTimeFromFile(fromString);
-                                LocalDateTime to = DateTimeUtil.parseDateTimeFromFile(toString);
-                                task = new Event(description, from, to);
-                            } catch (Exception e) {
-                                System.out.println("OOPS!!! Invalid date format in Event at line "
-                                        + lineNumber + ": " + line);
-                                continue;
-                            }
-                        } else if (parts.length == 5) {
-                            // Old format with priority: E | status | priority | description |
-                            // duration
-                            String duration = parts[descriptionIndex + 1].trim();
-                            // Parse duration back to from and to
-                            String[] durationParts = duration.split(" to ");
-                            if (durationParts.length != 2) {
-                                System.out.println("OOPS!!! Corrupted Event duration at line "
-                                        + lineNumber + ": " + line);
-                                continue;
-                            }
-                            task = new Event(description, durationParts[0], durationParts[1]);
-                        } else if (parts.length == 4) {
-                            // Very old format without priority: E | status | description | duration
-                            String duration = parts[3].trim();
-                            String[] durationParts = duration.split(" to ");
-                            if (durationParts.length != 2) {
-                                System.out.println("OOPS!!! Corrupted Event duration at line "
-                                        + lineNumber + ": " + line);
-                                continue;
-                            }
-                            task = new Event(description, durationParts[0], durationParts[1]);
-                        } else {
-                            System.out.println("OOPS!!! Corrupted Event data at line " + lineNumber
-                                    + ": " + line);
-                            continue;
-                        }
-                    } else {
-                        System.out.println(
-                                "OOPS!!! Unknown task type at line " + lineNumber + ": " + line);
-                        continue;
-                    }
-
-                    if (task != null) {
-                        task.setDone(status == DONE_STATUS);
-                        task.setPriority(priority);
-                        tasks.add(task);
-                    }
-
-                } catch (NumberFormatException e) {
-                    System.out.println(
-                            "OOPS!!! Invalid status format at line " + lineNumber + ": " + line);
-                } catch (Exception e) {
-                    System.out.println("OOPS!!! Error parsing line " + lineNumber + ": " + line
-                            + " - " + e.getMessage());
-                }
+    /**
+     * Reads the tasks stored in the data file, without applying the journal, recording where the
+     * line of each task lies if the data file is a text file.
+     *
+     * @param index the index to fill with the position of each task's line, or null
+     * @return ArrayList of tasks in the data file, empty if the file doesn't exist
+     * @throws IOException if the file cannot be read
+     */
+    private ArrayList<Task> readSnapshot(RecordIndex index) throws IOException {
+        File file = new File(filePath);
+        if (!file.exists()) {
+            if (index != null) {
+                index.invalidate();
             }
+            return new ArrayList<>(); // Return empty list if file doesn't exist
         }
-        return tasks;
+        return TaskFileReader.read(file.toPath(), isParallelLoadEnabled, index);
+    }
+
+    /**
+     * Returns whether a journal or a journal taken over by a compaction exists on disk.
+     *
+     * @return true if there are journal records to replay
+     */
+    private boolean hasJournal() {
+        return new File(journal.getJournalPath()).exists()
+                || new File(pendingJournal.getJournalPath()).exists();
     }
 }
@@ -0,0 +1,11 @@
+package luffy.storage;
+
+/**
+ * Represents the on-disk format of the data file. TEXT is the human-readable pipe-separated
+ * format. BINARY is a compact format with length-prefixed strings and dates stored as numbers,
+ * which is smaller and faster to load. Loading detects the format of the file, so the format only
+ * decides how snapshots are written.
+ */
+public enum StorageFormat {
+    TEXT, BINARY
+}
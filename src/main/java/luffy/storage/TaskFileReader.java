@@ -0,0 +1,315 @@
+package luffy.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import luffy.task.Task;
+
+/**
+ * Reads data files through a FileChannel and decodes tasks straight from the file's bytes, in
+ * either the text or the binary format. The whole file is read into a heap buffer with a single
+ * copy from the OS page cache, skipping a reader's char buffer. Files are not memory-mapped: a
+ * mapping cannot be released before it is garbage collected, and while it exists the data file
+ * cannot be replaced on every platform, which the next save needs to do.
+ *
+ * Large text files can also be decoded in parallel: the file is split into chunks at line
+ * boundaries, the chunks are decoded on the common ForkJoinPool and their tasks are concatenated in
+ * file order. Binary files have no record boundaries that can be found without decoding, so they
+ * are always decoded sequentially.
+ */
+public class TaskFileReader {
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    /**
+     * The tasks and error messages of one chunk of a text file.
+     */
+    private static class ChunkResult {
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<String> errors = new ArrayList<>();
+        private final RecordIndex index = new RecordIndex();
+    }
+
+    /**
+     * Reads every task in a data file. Corrupted lines of a text file are reported and skipped,
+     * like Storage has always done.
+     *
+     * @param path the path of an existing data file
+     * @return the tasks in the file, in order
+     * @throws IOException if the file cannot be read, or is a corrupted binary file
+     */
+    public static ArrayList<Task> read(Path path) throws IOException {
+        return read(path, false);
+    }
+
+    /**
+     * Reads every task in a data file, decoding a large text file in parallel if requested. The
+     * tasks and the error messages for corrupted lines come out in the same order, and with the
+     * same line numbers, as when the file is decoded sequentially.
+     *
+     * @param path the path of an existing data file
+     * @param isParallel whether a large text file may be decoded in parallel
+     * @return the tasks in the file, in order
+     * @throws IOException if the file cannot be read, or is a corrupted binary file
+     */
+    public static ArrayList<Task> read(Path path, boolean isParallel) throws IOException {
+        return read(path, isParallel, null);
+    }
+
+    /**
+     * Reads every task in a data file like read(Path, boolean), also recording where the line of
+     * each task lies if the file is a text file. The index is left invalid for a binary file.
+     *
+     * @param path the path of an existing data file
+     * @param isParallel whether a large text file may be decoded in parallel
+     * @param index the index to fill with the position of each task's line, or null
+     * @return the tasks in the file, in order
+     * @throws IOException if the file cannot be read, or is a corrupted binary file
+     */
+    static ArrayList<Task> read(Path path, boolean isParallel, RecordIndex index)
+            throws IOException {
+        if (index != null) {
+            index.invalidate();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file is too large to load: " + size + " bytes");
+            }
+
+            ByteBuffer buffer = readFully(channel, (int) size);
+            if (BinaryTaskCodec.hasMagic(buffer)) {
+                return BinaryTaskCodec.read(buffer);
+            }
+
+            ArrayList<Task> tasks;
+            if (isParallel && buffer.limit() >= 2 * MIN_CHUNK_BYTES) {
+                tasks = decodeInParallel(buffer, index);
+            } else {
+                tasks = new ArrayList<>();
+                decodeLines(buffer, 0, buffer.limit(), 1, new TaskLineDecoder(), tasks, index);
+            }
+            if (index != null) {
+                index.complete(size);
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Decodes a text file in chunks on the common ForkJoinPool. Line numbers of each chunk are
+     * found by counting the lines of the chunks before it, and error messages are collected per
+     * chunk and printed in order once every chunk is decoded.
+     *
+     * @param buffer the file contents
+     * @param index the index to fill with the position of each task's line, or null
+     * @return the tasks in the file, in order
+     * @throws IOException if decoding was interrupted
+     */
+    private static ArrayList<Task> decodeInParallel(ByteBuffer buffer, RecordIndex index)
+            throws IOException {
+        int[] boundaries = findChunkBoundaries(buffer);
+        int chunkCount = boundaries.length - 1;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        ArrayList<Callable<Integer>> counters = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            int start = boundaries[i];
+            int end = boundaries[i + 1];
+            counters.add(() -> countLines(buffer, start, end));
+        }
+        List<Future<Integer>> lineCounts = pool.invokeAll(counters);
+
+        ArrayList<Callable<ChunkResult>> decoders = new ArrayList<>();
+        int firstLineNumber = 1;
+        for (int i = 0; i < chunkCount; i++) {
+            int start = boundaries[i];
+            int end = boundaries[i + 1];
+            int chunkFirstLineNumber = firstLineNumber;
+            decoders.add(() -> decodeChunk(buffer, start, end, chunkFirstLineNumber));
+            firstLineNumber += getResult(lineCounts.get(i));
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Future<ChunkResult> future : pool.invokeAll(decoders)) {
+            ChunkResult chunk = getResult(future);
+            tasks.addAll(chunk.tasks);
+            if (index != null) {
+                index.addAll(chunk.index);
+            }
+            for (String error : chunk.errors) {
+                System.out.println(error);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits the buffer into chunks of roughly equal size that each end just after a line feed,
+     * so that no line, and no "\r\n" pair, spans two chunks.
+     *
+     * @return the start of every chunk followed by the end of the last one
+     */
+    private static int[] findChunkBoundaries(ByteBuffer buffer) {
+        int size = buffer.limit();
+        int chunkCount = Math.max(1, Math.min(ForkJoinPool.commonPool().getParallelism() * 4,
+                size / MIN_CHUNK_BYTES));
+        int chunkSize = size / chunkCount;
+
+        ArrayList<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int offset = chunkSize;
+        while (offset < size) {
+            while (offset < size && buffer.get(offset - 1) != LINE_FEED) {
+                offset++;
+            }
+            if (offset < size) {
+                boundaries.add(offset);
+            }
+            offset += chunkSize;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Counts the lines between two offsets, treating "\r\n" as a single line terminator.
+     */
+    private static int countLines(ByteBuffer buffer, int start, int end) {
+        int lines = 0;
+        int offset = start;
+        while (offset < end) {
+            byte b = buffer.get(offset);
+            if (isLineTerminator(b)) {
+                lines++;
+                offset = skipLineTerminator(buffer, offset, end);
+            } else {
+                offset++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Decodes one chunk with its own decoder, collecting its error messages instead of printing
+     * them.
+     */
+    private static ChunkResult decodeChunk(ByteBuffer buffer, int start, int end,
+            int firstLineNumber) {
+        ChunkResult result = new ChunkResult();
+        TaskLineDecoder decoder = new TaskLineDecoder(result.errors::add);
+        decodeLines(buffer, start, end, firstLineNumber, decoder, result.tasks, result.index);
+        return result;
+    }
+
+    /**
+     * Waits for the result of a chunk, rethrowing any failure of its task.
+     */
+    private static <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading the data file", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Reads the whole channel into a heap buffer.
+     */
+    private static ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // Keep reading until the buffer is full or the file ends
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes the text lines between two byte offsets of the buffer, appending every valid task to
+     * the list. Lines end at "\n", "\r" or "\r\n" and are decoded in the platform charset, exactly
+     * like BufferedReader(FileReader) reads them. Blank lines are skipped.
+     *
+     * @param buffer the file contents
+     * @param start the offset of the first line
+     * @param end the offset just past the last line
+     * @param firstLineNumber the 1-based line number of the first line, used in error messages
+     * @param decoder the decoder to decode lines with
+     * @param tasks the list to append decoded tasks to
+     * @param index the index to append the position of each decoded task's line to, or null
+     */
+    static void decodeLines(ByteBuffer buffer, int start, int end, int firstLineNumber,
+            TaskLineDecoder decoder, ArrayList<Task> tasks, RecordIndex index) {
+        Charset charset = Charset.defaultCharset();
+        byte[] scratch = buffer.hasArray() ? null : new byte[256];
+        int lineNumber = firstLineNumber;
+        int lineStart = start;
+
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && !isLineTerminator(buffer.get(lineEnd))) {
+                lineEnd++;
+            }
+
+            int length = lineEnd - lineStart;
+            String line;
+            if (scratch == null) {
+                line = new String(buffer.array(), buffer.arrayOffset() + lineStart, length,
+                        charset);
+            } else {
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(lineStart, scratch, 0, length);
+                line = new String(scratch, 0, length, charset);
+            }
+
+            if (!line.isBlank()) {
+                Task task = decoder.decode(line, lineNumber);
+                if (task != null) {
+                    tasks.add(task);
+                    if (index != null) {
+                        index.add(lineStart, length);
+                    }
+                }
+            }
+
+            lineNumber++;
+            lineStart = skipLineTerminator(buffer, lineEnd, end);
+        }
+    }
+
+    /**
+     * Returns the offset just past the line terminator at the given offset.
+     */
+    static int skipLineTerminator(ByteBuffer buffer, int offset, int end) {
+        if (offset < end && buffer.get(offset) == CARRIAGE_RETURN) {
+            offset++;
+            if (offset < end && buffer.get(offset) == LINE_FEED) {
+                offset++;
+            }
+            return offset;
+        }
+        return offset < end ? offset + 1 : offset;
+    }
+
+    static boolean isLineTerminator(byte b) {
+        return b == LINE_FEED || b == CARRIAGE_RETURN;
+    }
+}
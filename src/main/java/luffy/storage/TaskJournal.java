@@ -0,0 +1,338 @@
+package luffy.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import luffy.task.Priority;
+import luffy.task.Task;
+
+/**
+ * Append-only log of task list mutations that accompanies the data file. Each mutation is written
+ * as one pipe-separated record, so persisting a single change costs a small append instead of a
+ * rewrite of every task. Records refer to tasks by their 0-based position and are replayed in
+ * order on top of the last snapshot when tasks are loaded.
+ *
+ * Record formats: "ADD | task line", "MARK | index", "UNMARK | index", "DELETE | index" and
+ * "PRIORITY | index | priority".
+ *
+ * Appends and rotation are synchronized so that a background compaction can take the journal
+ * away while commands keep appending to a fresh one.
+ *
+ * Records are not idempotent, so a journal must never be replayed on top of a snapshot that
+ * already contains it. Before a snapshot replaces the data file, the journals it contains are
+ * moved aside to a folded file; the rename of the snapshot then decides whether the folded records
+ * are discarded or restored when an interrupted save is recovered.
+ */
+public class TaskJournal {
+    private static final String RECORD_SEPARATOR = " | ";
+    private static final String ADD_OPERATION = "ADD";
+    private static final String MARK_OPERATION = "MARK";
+    private static final String UNMARK_OPERATION = "UNMARK";
+    private static final String DELETE_OPERATION = "DELETE";
+    private static final String PRIORITY_OPERATION = "PRIORITY";
+    private static final String FOLDED_SUFFIX = ".folded";
+
+    private String journalPath;
+    private TaskLineDecoder decoder;
+    private int recordCount;
+    private long byteCount;
+
+    /**
+     * Creates a new TaskJournal backed by the specified file.
+     *
+     * @param journalPath the path to the journal file
+     */
+    public TaskJournal(String journalPath) {
+        assert journalPath != null : "Journal path cannot be null";
+        this.journalPath = journalPath;
+        this.decoder = new TaskLineDecoder();
+        this.recordCount = 0;
+        this.byteCount = new File(journalPath).length();
+    }
+
+    /**
+     * Returns the path of the journal file.
+     *
+     * @return the journal file path
+     */
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    /**
+     * Returns the number of records appended or replayed since the journal was last cleared.
+     *
+     * @return the journal record count
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the size of the journal file in bytes.
+     *
+     * @return the journal size in bytes
+     */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Builds the record for a task added to the end of the list.
+     *
+     * @param taskLine the task formatted as a data file line
+     * @return the journal record
+     */
+    public static String addRecord(String taskLine) {
+        return ADD_OPERATION + RECORD_SEPARATOR + taskLine;
+    }
+
+    /**
+     * Builds the record for a change in the done status of a task.
+     *
+     * @param index the 0-based index of the task
+     * @param isDone the new done status
+     * @return the journal record
+     */
+    public static String statusRecord(int index, boolean isDone) {
+        return (isDone ? MARK_OPERATION : UNMARK_OPERATION) + RECORD_SEPARATOR + index;
+    }
+
+    /**
+     * Builds the record for the removal of a task.
+     *
+     * @param index the 0-based index the task had before removal
+     * @return the journal record
+     */
+    public static String deleteRecord(int index) {
+        return DELETE_OPERATION + RECORD_SEPARATOR + index;
+    }
+
+    /**
+     * Builds the record for a change in the priority of a task.
+     *
+     * @param index the 0-based index of the task
+     * @param priority the new priority
+     * @return the journal record
+     */
+    public static String priorityRecord(int index, Priority priority) {
+        return PRIORITY_OPERATION + RECORD_SEPARATOR + index + RECORD_SEPARATOR + priority.name();
+    }
+
+    /**
+     * Writes a single record to the end of the journal, creating the file if needed.
+     *
+     * @param record the record to write
+     * @throws IOException if the journal cannot be written to
+     */
+    public void append(String record) throws IOException {
+        appendBatch(List.of(record), false);
+    }
+
+    /**
+     * Writes several records to the end of the journal with a single write, creating the file if
+     * needed. When forced, the records are also synced to the storage device before returning.
+     *
+     * @param records the records to write, in order
+     * @param isForced true to sync the journal to disk after writing
+     * @throws IOException if the journal cannot be written to
+     */
+    public synchronized void appendBatch(List<String> records, boolean isForced)
+            throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        File parent = new File(journalPath).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        StringBuilder batch = new StringBuilder();
+        for (String record : records) {
+            batch.append(record).append(System.lineSeparator());
+        }
+        byte[] bytes = batch.toString().getBytes();
+        try (FileOutputStream output = new FileOutputStream(journalPath, true)) {
+            output.write(bytes);
+            if (isForced) {
+                output.getFD().sync();
+            }
+        }
+        recordCount += records.size();
+        byteCount += bytes.length;
+    }
+
+    /**
+     * Deletes the journal. Called once every journaled mutation is contained in a fresh snapshot.
+     *
+     * @throws IOException if an existing journal cannot be deleted
+     */
+    public synchronized void clear() throws IOException {
+        File file = new File(journalPath);
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not clear journal " + journalPath);
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Moves the records of this journal into the target journal file so that they can be folded
+     * into a snapshot, leaving this journal empty for further appends. Does nothing if the target
+     * still holds records from an earlier rotation that have not been folded yet.
+     *
+     * @param target the journal that takes over the records
+     * @throws IOException if the journal file cannot be moved
+     */
+    public synchronized void rotateTo(TaskJournal target) throws IOException {
+        File file = new File(journalPath);
+        File targetFile = new File(target.getJournalPath());
+        if (!file.exists() || targetFile.exists()) {
+            return;
+        }
+
+        Files.move(file.toPath(), targetFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Moves the records of this journal aside to its folded file, marking them as contained in the
+     * snapshot about to replace the data file, and leaves this journal empty.
+     *
+     * @throws IOException if the journal file cannot be moved
+     */
+    public synchronized void fold() throws IOException {
+        File file = new File(journalPath);
+        if (file.exists()) {
+            Files.move(file.toPath(), getFoldedFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Deletes the folded file once the snapshot containing its records has replaced the data file.
+     *
+     * @throws IOException if an existing folded file cannot be deleted
+     */
+    public synchronized void clearFolded() throws IOException {
+        File foldedFile = getFoldedFile();
+        if (foldedFile.exists() && !foldedFile.delete()) {
+            throw new IOException("Could not clear journal " + foldedFile.getPath());
+        }
+    }
+
+    /**
+     * Moves the folded records back into this journal, for when the snapshot containing them did
+     * not replace the data file. Does nothing if there is no folded file.
+     *
+     * @throws IOException if the folded file cannot be moved
+     */
+    public synchronized void restoreFolded() throws IOException {
+        File foldedFile = getFoldedFile();
+        if (!foldedFile.exists()) {
+            return;
+        }
+        File file = new File(journalPath);
+        Files.move(foldedFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        byteCount = file.length();
+    }
+
+    private File getFoldedFile() {
+        return new File(journalPath + FOLDED_SUFFIX);
+    }
+
+    /**
+     * Replays every journal record in order on top of the given tasks. Corrupted records, and
+     * records that refer to a position that does not exist, are skipped with an error message.
+     *
+     * @param tasks the tasks loaded from the last snapshot, modified in place
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized void replay(ArrayList<Task> tasks) throws IOException {
+        File file = new File(journalPath);
+        if (!file.exists()) {
+            return;
+        }
+
+        recordCount = 0;
+        byteCount = file.length();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                recordCount++;
+                if (!applyRecord(tasks, line, lineNumber)) {
+                    System.out.println("OOPS!!! Corrupted journal entry at line " + lineNumber
+                            + ": " + line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a single journal record to the tasks.
+     *
+     * @param tasks the tasks to modify
+     * @param record the trimmed journal record
+     * @param lineNumber the 1-based line number of the record in the journal
+     * @return true if the record was applied, false if it is corrupted
+     */
+    private boolean applyRecord(ArrayList<Task> tasks, String record, int lineNumber) {
+        int separatorIndex = record.indexOf(RECORD_SEPARATOR);
+        if (separatorIndex == -1) {
+            return false;
+        }
+        String operation = record.substring(0, separatorIndex);
+        String argument = record.substring(separatorIndex + RECORD_SEPARATOR.length());
+
+        if (operation.equals(ADD_OPERATION)) {
+            Task task = decoder.decode(argument, lineNumber);
+            if (task == null) {
+                return false;
+            }
+            tasks.add(task);
+            return true;
+        }
+
+        String[] parts = argument.split(" \\| ");
+        int index;
+        try {
+            index = Integer.parseInt(parts[0].trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (index < 0 || index >= tasks.size()) {
+            return false;
+        }
+
+        if (operation.equals(MARK_OPERATION) || operation.equals(UNMARK_OPERATION)) {
+            tasks.get(index).setDone(operation.equals(MARK_OPERATION));
+        } else if (operation.equals(DELETE_OPERATION)) {
+            tasks.remove(index);
+        } else if (operation.equals(PRIORITY_OPERATION) && parts.length == 2) {
+            try {
+                tasks.get(index).setPriority(Priority.valueOf(parts[1].trim()));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
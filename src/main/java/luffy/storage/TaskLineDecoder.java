@@ -0,0 +1,357 @@
+package luffy.storage;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import luffy.task.Deadline;
+import luffy.task.Event;
+import luffy.task.Priority;
+import luffy.task.Task;
+import luffy.task.Todo;
+import luffy.util.DateTimeUtil;
+
+/**
+ * Decodes lines of the pipe-separated data file into tasks in a single pass. Fields are located
+ * with indexOf and kept as index ranges into the line, so the only strings created for a valid
+ * line are the ones the task keeps. The format version of each line (with or without priority,
+ * ISO or legacy string dates) is detected by inspecting the fields, never by catching exceptions.
+ * The type marker may carry the task's ID after a '#', as in "T#12"; tasks written before IDs
+ * existed have a bare marker and are left without an ID.
+ *
+ * A decoder reuses its field buffers between lines and is therefore not thread-safe; each thread
+ * that decodes lines needs its own instance.
+ *
+ * Error messages for corrupted lines are printed by default, or handed to a consumer so that
+ * decoders running in parallel can have their messages printed in line order afterwards.
+ */
+public class TaskLineDecoder {
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final String DURATION_SEPARATOR = " to ";
+    private static final String TODO_MARKER = "T";
+    private static final String DEADLINE_MARKER = "D";
+    private static final String EVENT_MARKER = "E";
+    private static final char ID_SEPARATOR = '#';
+    private static final int DONE_STATUS = 1;
+    private static final int MAX_FIELDS = 6;
+    private static final int LEGACY_TODO_FIELDS = 3;
+    private static final int MIN_FIELDS = 4;
+
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final Consumer<String> errorOutput;
+    private String line;
+    private int fieldCount;
+
+    /**
+     * Creates a new TaskLineDecoder that prints error messages to standard output.
+     */
+    public TaskLineDecoder() {
+        this(message -> System.out.println(message));
+    }
+
+    /**
+     * Creates a new TaskLineDecoder that hands error messages to the given consumer.
+     *
+     * @param errorOutput the consumer of error messages for corrupted lines
+     */
+    public TaskLineDecoder(Consumer<String> errorOutput) {
+        assert errorOutput != null : "Error output cannot be null";
+        this.errorOutput = errorOutput;
+    }
+
+    /**
+     * Decodes one line of the data file. Lines may carry surrounding whitespace; blank lines
+     * should be skipped by the caller. Reports an error message and returns null if the line is
+     * corrupted.
+     *
+     * @param rawLine the line to decode
+     * @param lineNumber the 1-based line number, used in error messages
+     * @return the decoded task, or null if the line could not be decoded
+     */
+    public Task decode(String rawLine, int lineNumber) {
+        line = rawLine;
+        int start = 0;
+        int end = rawLine.length();
+        while (start < end && rawLine.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && rawLine.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        splitFields(start, end);
+
+        if (fieldCount < MIN_FIELDS && !(fieldCount == LEGACY_TODO_FIELDS
+                && markerEquals(TODO_MARKER))) {
+            return report("Corrupted data found at line ", lineNumber, start, end);
+        }
+
+        int id = parseId();
+        if (id == Integer.MIN_VALUE) {
+            return report("Invalid task ID at line ", lineNumber, start, end);
+        }
+
+        int status = parseStatus(1);
+        if (status == Integer.MIN_VALUE) {
+            return report("Invalid status format at line ", lineNumber, start, end);
+        }
+
+        // Lines written before priorities existed have the description in the third field
+        Priority priority = fieldCount >= MIN_FIELDS ? parsePriority(2) : null;
+        int descriptionField = priority == null ? 2 : 3;
+        String description = fieldString(descriptionField);
+
+        Task task;
+        if (markerEquals(TODO_MARKER)) {
+            task = decodeTodo(description);
+            if (task == null) {
+                return report("Corrupted Todo data at line ", lineNumber, start, end);
+            }
+        } else if (markerEquals(DEADLINE_MARKER)) {
+            task = decodeDeadline(description, descriptionField);
+            if (task == null) {
+                return report("Corrupted Deadline data at line ", lineNumber, start, end);
+            }
+        } else if (markerEquals(EVENT_MARKER)) {
+            if (fieldCount < MIN_FIELDS || fieldCount > MAX_FIELDS) {
+                return report("Corrupted Event data at line ", lineNumber, start, end);
+            }
+            task = decodeEvent(description, descriptionField);
+            if (task == null) {
+                String problem = fieldCount == MAX_FIELDS ? "Invalid date format in Event at line "
+                        : "Corrupted Event duration at line ";
+                return report(problem, lineNumber, start, end);
+            }
+        } else {
+            return report("Unknown task type at line ", lineNumber, start, end);
+        }
+
+        task.setDone(status == DONE_STATUS);
+        task.setPriority(priority == null ? Priority.NORMAL : priority);
+        if (id != Task.NO_ID) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Builds a Todo from the decoded fields: "T | status | priority | description", or the legacy
+     * "T | status | description".
+     */
+    private Task decodeTodo(String description) {
+        if (fieldCount != MIN_FIELDS && fieldCount != LEGACY_TODO_FIELDS) {
+            return null;
+        }
+        return new Todo(description);
+    }
+
+    /**
+     * Builds a Deadline from the decoded fields: "D | status | priority | description | by", or
+     * the same without priority. The due date is kept as a string if it is not in ISO format.
+     */
+    private Task decodeDeadline(String description, int descriptionField) {
+        int byField = descriptionField + 1;
+        if ((fieldCount != MIN_FIELDS && fieldCount != MIN_FIELDS + 1) || byField >= fieldCount) {
+            return null;
+        }
+
+        LocalDateTime by = parseDateTime(byField);
+        return by != null ? new Deadline(description, by)
+                : new Deadline(description, fieldString(byField));
+    }
+
+    /**
+     * Builds an Event from the decoded fields: "E | status | priority | description | from | to"
+     * with ISO dates, or "E | status | [priority |] description | from to to" with legacy
+     * strings.
+     */
+    private Task decodeEvent(String description, int descriptionField) {
+        if (fieldCount == MAX_FIELDS) {
+            LocalDateTime from = parseDateTime(descriptionField + 1);
+            LocalDateTime to = parseDateTime(descriptionField + 2);
+            return from != null && to != null ? new Event(description, from, to) : null;
+        }
+
+        int durationField = fieldCount == MIN_FIELDS ? 3 : descriptionField + 1;
+        int start = trimmedStart(durationField);
+        int end = trimmedEnd(durationField);
+        int separator = line.indexOf(DURATION_SEPARATOR, start);
+        if (separator == -1 || separator + DURATION_SEPARATOR.length() > end) {
+            return null;
+        }
+        int secondSeparator = line.indexOf(DURATION_SEPARATOR,
+                separator + DURATION_SEPARATOR.length());
+        if (secondSeparator != -1 && secondSeparator + DURATION_SEPARATOR.length() <= end) {
+            return null;
+        }
+        return new Event(description, line.substring(start, separator),
+                line.substring(separator + DURATION_SEPARATOR.length(), end));
+    }
+
+    /**
+     * Splits the trimmed range of the line into fields at each separator, recording their ranges.
+     * Trailing empty fields are dropped. Field counts beyond MAX_FIELDS are still counted so that
+     * overlong lines are rejected.
+     */
+    private void splitFields(int start, int end) {
+        fieldCount = 0;
+        int lastNonEmptyCount = 0;
+        int fieldStart = start;
+        while (true) {
+            int separator = line.indexOf(FIELD_SEPARATOR, fieldStart);
+            int fieldEnd = separator == -1 || separator + FIELD_SEPARATOR.length() > end ? end
+                    : separator;
+            if (fieldCount < MAX_FIELDS) {
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = fieldEnd;
+            }
+            fieldCount++;
+            if (fieldEnd > fieldStart) {
+                lastNonEmptyCount = fieldCount;
+            }
+            if (fieldEnd == end) {
+                break;
+            }
+            fieldStart = fieldEnd + FIELD_SEPARATOR.length();
+        }
+        fieldCount = lastNonEmptyCount;
+    }
+
+    /**
+     * Returns the start of a field with leading whitespace skipped.
+     */
+    private int trimmedStart(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the end of a field with trailing whitespace skipped.
+     */
+    private int trimmedEnd(int field) {
+        int start = trimmedStart(field);
+        int end = fieldEnds[field];
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the trimmed content of a field as a string.
+     */
+    private String fieldString(int field) {
+        return line.substring(trimmedStart(field), trimmedEnd(field));
+    }
+
+    /**
+     * Checks whether the trimmed content of a field equals the expected text.
+     */
+    private boolean fieldEquals(int field, String expected) {
+        int start = trimmedStart(field);
+        return trimmedEnd(field) - start == expected.length()
+                && line.startsWith(expected, start);
+    }
+
+    /**
+     * Checks whether the type marker, ignoring any ID after it, equals the expected marker.
+     */
+    private boolean markerEquals(String marker) {
+        int start = trimmedStart(0);
+        int end = trimmedEnd(0);
+        int markerEnd = start + marker.length();
+        return line.startsWith(marker, start)
+                && (markerEnd == end
+                        || (markerEnd < end && line.charAt(markerEnd) == ID_SEPARATOR));
+    }
+
+    /**
+     * Parses the ID after the type marker.
+     *
+     * @return the ID, Task.NO_ID if the marker has none, or Integer.MIN_VALUE if it is not a
+     *         positive integer
+     */
+    private int parseId() {
+        int start = trimmedStart(0);
+        int end = trimmedEnd(0);
+        int separator = line.indexOf(ID_SEPARATOR, start);
+        if (separator == -1 || separator >= end) {
+            return Task.NO_ID;
+        }
+        int id = parseInteger(separator + 1, end);
+        return id > Task.NO_ID && line.charAt(separator + 1) != '+' ? id : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Parses the status field like Integer.parseInt would, without throwing.
+     *
+     * @return the status, or Integer.MIN_VALUE if the field is not an integer
+     */
+    private int parseStatus(int field) {
+        return parseInteger(trimmedStart(field), trimmedEnd(field));
+    }
+
+    /**
+     * Parses a range of the line like Integer.parseInt would, without throwing.
+     *
+     * @return the integer, or Integer.MIN_VALUE if the range is not an integer
+     */
+    private int parseInteger(int start, int end) {
+        boolean isNegative = false;
+        if (start < end && (line.charAt(start) == '-' || line.charAt(start) == '+')) {
+            isNegative = line.charAt(start) == '-';
+            start++;
+        }
+        if (start == end) {
+            return Integer.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+        }
+        return (int) (isNegative ? -value : value);
+    }
+
+    /**
+     * Matches the field against the priority names as written to the file.
+     *
+     * @return the priority, or null if the field is not a priority name
+     */
+    private Priority parsePriority(int field) {
+        for (Priority priority : Priority.values()) {
+            if (fieldEquals(field, priority.name())) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the field as an ISO date/time.
+     *
+     * @return the date/time, or null if the field is not in ISO format
+     */
+    private LocalDateTime parseDateTime(int field) {
+        return DateTimeUtil.tryParseDateTimeFromFile(line, trimmedStart(field), trimmedEnd(field));
+    }
+
+    /**
+     * Reports an error message for a corrupted line.
+     *
+     * @return null, so that callers can return the result directly
+     */
+    private Task report(String problem, int lineNumber, int start, int end) {
+        errorOutput.accept("OOPS!!! " + problem + lineNumber + ": " + line.substring(start, end));
+        return null;
+    }
+}
@@ -0,0 +1,249 @@
+package luffy.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes journal records on a single background thread so that commands do not wait for the disk.
+ * Records that arrive within the batch window of the first pending record are coalesced into one
+ * journal write (group commit). Whether a submitting command waits for its batch, and whether the
+ * batch is synced to disk, is decided by the DurabilityPolicy. A command that waits ends the
+ * window at once, so its batch holds the records queued while the previous batch was written.
+ *
+ * When nobody waits for a batch that fails, its records are kept and written again ahead of the
+ * next batch, until they are written or a full save makes them unnecessary.
+ */
+public class WriteBehindWriter {
+    private static final String THREAD_NAME = "luffy-write-behind";
+
+    private TaskJournal journal;
+    private DurabilityPolicy policy;
+    private long batchWindowMillis;
+    private final LinkedBlockingQueue<PendingRecord> queue;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private volatile IOException failure;
+    private final ArrayList<String> unwrittenRecords; // Records of failed batches, in order
+
+    /**
+     * A record waiting to be written, or a flush marker when the record is null.
+     */
+    private static class PendingRecord {
+        private final String record;
+        private final CompletableFuture<Void> written;
+
+        PendingRecord(String record) {
+            this.record = record;
+            this.written = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Creates a new WriteBehindWriter and starts its background thread.
+     *
+     * @param journal the journal that records are appended to
+     * @param policy the durability policy, which must be a write-behind policy
+     * @param batchWindowMillis how long to gather records before writing them
+     */
+    public WriteBehindWriter(TaskJournal journal, DurabilityPolicy policy, long batchWindowMillis) {
+        assert journal != null : "Journal cannot be null";
+        assert policy.isWriteBehind() : "Policy must write behind: " + policy;
+        assert batchWindowMillis >= 0 : "Batch window cannot be negative";
+        this.journal = journal;
+        this.policy = policy;
+        this.batchWindowMillis = batchWindowMillis;
+        this.queue = new LinkedBlockingQueue<>();
+        this.unwrittenRecords = new ArrayList<>();
+
+        writerThread = new Thread(this::runWriter, THREAD_NAME);
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        // Records still queued when the JVM exits would be lost without a final flush
+        shutdownHook = new Thread(this::flushQuietly);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues a record for writing. Under an awaited policy this blocks until the batch containing
+     * the record has been written. The record is queued even if an earlier batch failed, since
+     * the records of that batch are written again ahead of it.
+     *
+     * @param record the journal record to write
+     * @throws IOException if an earlier batch, or the batch containing this record, failed
+     */
+    public void submit(String record) throws IOException {
+        assert record != null : "Record cannot be null";
+        PendingRecord pending = new PendingRecord(record);
+        queue.add(pending);
+        if (policy.isAwaited()) {
+            await(pending);
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Drops the records of failed batches that are kept for writing again. Called by a full save
+     * after a failed flush, since the snapshot it writes contains those records.
+     */
+    public synchronized void discardUnwrittenRecords() {
+        unwrittenRecords.clear();
+    }
+
+    /**
+     * Blocks until every record queued so far has been written.
+     *
+     * @throws IOException if any queued record could not be written
+     */
+    public void flush() throws IOException {
+        PendingRecord marker = new PendingRecord(null);
+        queue.add(marker);
+        try {
+            await(marker);
+        } catch (IOException e) {
+            failure = null; // Reported here, together with the marker's batch
+            throw e;
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Flushes every queued record and stops the background thread.
+     *
+     * @throws IOException if any queued record could not be written
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writerThread.interrupt();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down, the hook is running or about to run
+            }
+        }
+    }
+
+    /**
+     * Reports a failed write once, so that later records can be attempted again.
+     *
+     * @throws IOException the failure of an earlier batch
+     */
+    private void throwIfFailed() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            failure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until the given pending record has been handled by the writer thread.
+     *
+     * @param pending the record to wait for
+     * @throws IOException if the record could not be written or waiting was interrupted
+     */
+    private void await(PendingRecord pending) throws IOException {
+        try {
+            pending.written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal to be written", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Flushes on JVM shutdown, printing instead of throwing since nobody can handle the error.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.out.println("OOPS!!! Couldn't save pending changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Main loop of the writer thread: gathers a batch and writes it until interrupted.
+     */
+    private void runWriter() {
+        try {
+            while (true) {
+                writeBatch(gatherBatch());
+            }
+        } catch (InterruptedException e) {
+            // Closed, every record was flushed before the interrupt
+        }
+    }
+
+    /**
+     * Takes the next pending record and every record that arrives within the batch window after
+     * it. A flush marker ends the batch early so that flush() does not wait for the window, and
+     * under an awaited policy the window is not waited out at all, since the submitter of the
+     * first record is already waiting: only records that are queued by then join the batch.
+     *
+     * @return the records of the batch, in submission order
+     * @throws InterruptedException if the writer is closed while waiting
+     */
+    private ArrayList<PendingRecord> gatherBatch() throws InterruptedException {
+        ArrayList<PendingRecord> batch = new ArrayList<>();
+        PendingRecord next = queue.take();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+
+        while (next != null) {
+            batch.add(next);
+            if (next.record == null) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            next = remaining > 0 && !policy.isAwaited()
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+        }
+        return batch;
+    }
+
+    /**
+     * Writes the records of a batch with a single journal append, after any records of failed
+     * batches, and completes their futures. If nobody waits for the batch and it fails, its
+     * records are kept to be written again with the next batch.
+     *
+     * @param batch the batch to write
+     */
+    private synchronized void writeBatch(ArrayList<PendingRecord> batch) {
+        ArrayList<String> records = new ArrayList<>(unwrittenRecords);
+        for (PendingRecord pending : batch) {
+            if (pending.record != null) {
+                records.add(pending.record);
+            }
+        }
+
+        IOException error = null;
+        try {
+            journal.appendBatch(records, policy.isForced());
+            unwrittenRecords.clear();
+        } catch (IOException e) {
+            error = e;
+            if (!policy.isAwaited()) {
+                // Nobody waits on this batch, so report it on the next submit or flush
+                failure = e;
+                unwrittenRecords.clear();
+                unwrittenRecords.addAll(records);
+            }
+        }
+
+        for (PendingRecord pending : batch) {
+            if (error == null) {
+                pending.written.complete(null);
+            } else {
+                pending.written.completeExceptionally(error);
+            }
+        }
+    }
+}
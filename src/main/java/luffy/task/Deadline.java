@@ -11,6 +11,7 @@ import luffy.util.DateTimeUtil;
 public class Deadline extends Task {
     private LocalDateTime by;
     private String byString; // For backward compatibility with old string-based data
+    private String byDisplay; // Formatted due date, created when first shown
 
     /**
      * Creates a new deadline task with the specified description and due date/time. This is the
@@ -52,14 +53,17 @@ public class Deadline extends Task {
 
     /**
      * Returns the due date and time of this deadline task as a formatted string. For LocalDateTime
-     * objects, formats using DateTimeUtil. For string-based deadlines, returns the original string
-     * for backward compatibility.
+     * objects, formats using DateTimeUtil once and reuses the result. For string-based deadlines,
+     * returns the original string for backward compatibility.
      *
      * @return the formatted due date and time string
      */
     public String getByAsString() {
         if (by != null) {
-            return DateTimeUtil.formatDateTime(by);
+            if (byDisplay == null) {
+                byDisplay = DateTimeUtil.formatDateTime(by);
+            }
+            return byDisplay;
         } else {
             return byString; // Return original string for backward compatibility
         }
@@ -13,6 +13,8 @@ public class Event extends Task {
     private LocalDateTime to;
     private String fromString; // For backward compatibility with old string-based data
     private String toString; // For backward compatibility with old string-based data
+    private String fromDisplay; // Formatted start time, created when first shown
+    private String toDisplay; // Formatted end time, created when first shown
 
     /**
      * Creates a new event task with the specified description and time period. This is the
@@ -66,14 +68,17 @@ public class Event extends Task {
 
     /**
      * Returns the start time of this event as a formatted string. For LocalDateTime objects,
-     * formats using DateTimeUtil. For string-based events, returns the original string for backward
-     * compatibility.
+     * formats using DateTimeUtil once and reuses the result. For string-based events, returns the
+     * original string for backward compatibility.
      *
      * @return the formatted start time string
      */
     public String getFromAsString() {
         if (from != null) {
-            return DateTimeUtil.formatDateTime(from);
+            if (fromDisplay == null) {
+                fromDisplay = DateTimeUtil.formatDateTime(from);
+            }
+            return fromDisplay;
         } else {
             return fromString; // Return original string for backward compatibility
         }
@@ -81,14 +86,17 @@ public class Event extends Task {
 
     /**
      * Returns the end time of this event as a formatted string. For LocalDateTime objects, formats
-     * using DateTimeUtil. For string-based events, returns the original string for backward
-     * compatibility.
+     * using DateTimeUtil once and reuses the result. For string-based events, returns the original
+     * string for backward compatibility.
      *
      * @return the formatted end time string
      */
     public String getToAsString() {
         if (to != null) {
-            return DateTimeUtil.formatDateTime(to);
+            if (toDisplay == null) {
+                toDisplay = DateTimeUtil.formatDateTime(to);
+            }
+            return toDisplay;
         } else {
             return toString; // Return original string for backward compatibility
         }
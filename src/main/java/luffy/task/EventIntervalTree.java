@@ -0,0 +1,170 @@
+package luffy.task;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Indexes events by the range of days they span, so that the events on a given day can be found
+ * in O(log n + k) time. The tree is a treap ordered by start day, with each node also remembering
+ * the latest end day in its subtree; a search skips every subtree that ends before the day, and
+ * every right subtree once the start days pass it. Days are stored as epoch days.
+ */
+class EventIntervalTree {
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * A node holding one event, ordered by start day and then by task ID.
+     */
+    private static class Node {
+        private final Event event;
+        private final long startDay;
+        private final long endDay;
+        private final int priority;
+        private long maxEndDay;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, long startDay, long endDay, int priority) {
+            this.event = event;
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.priority = priority;
+            this.maxEndDay = endDay;
+        }
+
+        private boolean isBefore(long otherStartDay, int otherId) {
+            return startDay < otherStartDay
+                    || (startDay == otherStartDay && event.getId() < otherId);
+        }
+    }
+
+    /**
+     * Adds an event spanning the given days. The event's ID must not change while it is indexed.
+     *
+     * @param event the event to add
+     * @param startDay the epoch day the event starts on
+     * @param endDay the epoch day the event ends on
+     */
+    void add(Event event, long startDay, long endDay) {
+        root = insert(root, new Node(event, startDay, endDay, random.nextInt()));
+    }
+
+    /**
+     * Removes an event that was added with the given start day.
+     *
+     * @param event the event to remove
+     * @param startDay the epoch day the event starts on
+     */
+    void remove(Event event, long startDay) {
+        root = delete(root, event, startDay);
+    }
+
+    /**
+     * Appends every event that spans the given day to the list.
+     *
+     * @param day the epoch day to look up
+     * @param matches the list to append matching events to
+     */
+    void collect(long day, ArrayList<Task> matches) {
+        collect(root, day, matches);
+    }
+
+    private static void collect(Node node, long day, ArrayList<Task> matches) {
+        if (node == null || node.maxEndDay < day) {
+            return;
+        }
+        collect(node.left, day, matches);
+        if (node.startDay > day) {
+            return;
+        }
+        if (node.endDay >= day) {
+            matches.add(node.event);
+        }
+        collect(node.right, day, matches);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (newNode.isBefore(node.startDay, node.event.getId())) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, Event event, long startDay) {
+        if (node == null) {
+            return null;
+        }
+        if (node.event == event) {
+            return merge(node.left, node.right);
+        }
+        if (node.isBefore(startDay, event.getId())) {
+            node.right = delete(node.right, event, startDay);
+        } else {
+            node.left = delete(node.left, event, startDay);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Joins two treaps whose keys are all ordered before those of the right one.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        long maxEndDay = node.endDay;
+        if (node.left != null) {
+            maxEndDay = Math.max(maxEndDay, node.left.maxEndDay);
+        }
+        if (node.right != null) {
+            maxEndDay = Math.max(maxEndDay, node.right.maxEndDay);
+        }
+        node.maxEndDay = maxEndDay;
+    }
+}
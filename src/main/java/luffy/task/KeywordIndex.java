@@ -0,0 +1,175 @@
+package luffy.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * An inverted index from the words of task descriptions to the tasks that contain them, used to
+ * find tasks whose descriptions contain every keyword as a case-insensitive substring.
+ *
+ * Descriptions are lowercased and split into words at every character that is not a letter or
+ * digit. Keywords of at least three characters, which may be any part of a word or span several
+ * words, are looked up in a TrigramIndex over the descriptions. A shorter keyword made only of
+ * letters and digits can only occur inside a single word, so the tasks containing it are exactly
+ * those listed under the indexed words that contain it, which are found by checking the distinct
+ * words rather than every description. Other short keywords do not narrow the search.
+ * Candidates are always checked against the full descriptions, so the results are the same as
+ * those of a plain substring search.
+ *
+ * Every posting list is in list order, so candidates are found in list order by walking the
+ * shortest list that a task must be in and looking each task up in the others, with no sorting.
+ * A keyword so common that even the shortest list holds a large part of the tasks cannot narrow
+ * the search much, and checking the list directly is then faster than the lookups.
+ */
+class KeywordIndex {
+    private static final int SCAN_FRACTION = 8; // Scan once candidates exceed 1/8 of the tasks
+
+    private final HashMap<String, PostingList> tasksByWord = new HashMap<>();
+    private final HashMap<Task, String[]> wordsByTask = new HashMap<>();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+
+    /**
+     * Indexes the words and trigrams of a task's description.
+     *
+     * @param task the task to index
+     */
+    void add(Task task) {
+        String description = task.getDescription().toLowerCase();
+        trigramIndex.add(task, description);
+        String[] words = splitWords(description);
+        wordsByTask.put(task, words);
+        for (String word : words) {
+            tasksByWord.computeIfAbsent(word, key -> new PostingList()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task, using the words and trigrams it was indexed under.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        trigramIndex.remove(task);
+        String[] words = wordsByTask.remove(task);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            PostingList postings = tasksByWord.get(word);
+            postings.remove(task);
+            if (postings.isEmpty()) {
+                tasksByWord.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks that may contain every keyword, in list order, or null if the keywords
+     * cannot narrow the search enough and every task should be checked instead. The candidates
+     * are found as they are iterated.
+     *
+     * @param keywords the lowercased keywords
+     * @param taskCount the number of tasks in the list
+     * @return the candidate tasks, or null for all tasks
+     */
+    Iterable<Task> findCandidates(String[] keywords, int taskCount) {
+        int maxCandidates = taskCount / SCAN_FRACTION;
+        ArrayList<PostingList> requiredLists = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (keyword.length() >= TrigramIndex.TRIGRAM_LENGTH) {
+                requiredLists.addAll(trigramIndex.findPostingLists(keyword));
+            } else if (!keyword.isEmpty() && isWord(keyword)) {
+                PostingList keywordTasks = findTasksWithWordContaining(keyword, maxCandidates);
+                if (keywordTasks != null) {
+                    requiredLists.add(keywordTasks);
+                }
+            }
+        }
+
+        PostingList shortestList = null;
+        for (PostingList list : requiredLists) {
+            if (shortestList == null || list.size() < shortestList.size()) {
+                shortestList = list;
+            }
+        }
+        if (shortestList == null || shortestList.size() > maxCandidates) {
+            return null;
+        }
+        return shortestList.intersect(requiredLists);
+    }
+
+    /**
+     * Collects the tasks listed under every indexed word that contains the keyword, merged in list
+     * order, unless they may be too many to narrow the search.
+     *
+     * @return the tasks, or null if the lists of the words hold more than maxTasks tasks
+     */
+    private PostingList findTasksWithWordContaining(String keyword, int maxTasks) {
+        ArrayList<PostingList> wordLists = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, PostingList> entry : tasksByWord.entrySet()) {
+            if (entry.getKey().contains(keyword)) {
+                wordLists.add(entry.getValue());
+                total += entry.getValue().size();
+                if (total > maxTasks) {
+                    return null;
+                }
+            }
+        }
+
+        PostingList tasks = new PostingList();
+        for (Task task : PostingList.union(wordLists)) {
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Checks whether the lowercased description contains every lowercased keyword.
+     *
+     * @param description the lowercased description
+     * @param keywords the lowercased keywords
+     * @return true if every keyword occurs in the description
+     */
+    static boolean containsAll(String description, String[] keywords) {
+        for (String keyword : keywords) {
+            if (!description.contains(keyword)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a lowercased description into its distinct words.
+     */
+    static String[] splitWords(String description) {
+        HashSet<String> words = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= description.length(); i++) {
+            boolean isWordChar = i < description.length()
+                    && Character.isLetterOrDigit(description.charAt(i));
+            if (isWordChar && start == -1) {
+                start = i;
+            } else if (!isWordChar && start != -1) {
+                words.add(description.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Checks whether the keyword consists only of letters and digits.
+     */
+    static boolean isWord(String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (!Character.isLetterOrDigit(keyword.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
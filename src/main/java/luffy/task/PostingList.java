@@ -0,0 +1,247 @@
+package luffy.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * The tasks listed under one key of an index, kept in ascending order of their insertion sequence,
+ * which is list order, so that results come out in list order without sorting. Tasks new to the
+ * list have a higher sequence than any before them, so adding them appends. A removed task leaves
+ * an empty slot that keeps its sequence, so slots can still be found by binary search; the slots
+ * are compacted once half of them are empty.
+ */
+class PostingList implements Iterable<Task> {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    private int[] sequences = new int[INITIAL_CAPACITY];
+    private int slotCount;
+    private int size;
+
+    /**
+     * Adds a task in sequence order. A task new to the list is appended; a task indexed again, as
+     * when its description changes, is put back in its place.
+     *
+     * @param task the task to add, which must not be listed already
+     */
+    void add(Task task) {
+        int sequence = task.getSequence();
+        int slot = slotCount;
+        if (slotCount > 0 && sequences[slotCount - 1] >= sequence) {
+            slot = Arrays.binarySearch(sequences, 0, slotCount, sequence);
+            if (slot >= 0) {
+                assert tasks[slot] == null : "Task is already listed";
+                tasks[slot] = task;
+                size++;
+                return;
+            }
+            slot = -slot - 1;
+        }
+
+        if (slotCount == tasks.length) {
+            tasks = Arrays.copyOf(tasks, slotCount * 2);
+            sequences = Arrays.copyOf(sequences, slotCount * 2);
+        }
+        System.arraycopy(tasks, slot, tasks, slot + 1, slotCount - slot);
+        System.arraycopy(sequences, slot, sequences, slot + 1, slotCount - slot);
+        tasks[slot] = task;
+        sequences[slot] = sequence;
+        slotCount++;
+        size++;
+    }
+
+    /**
+     * Removes a task, if it is listed.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        int slot = Arrays.binarySearch(sequences, 0, slotCount, task.getSequence());
+        if (slot < 0 || tasks[slot] != task) {
+            return;
+        }
+        tasks[slot] = null;
+        size--;
+        if (size < slotCount / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Checks whether a task is listed.
+     *
+     * @param task the task to look for
+     * @return true if the task is listed
+     */
+    boolean contains(Task task) {
+        int slot = Arrays.binarySearch(sequences, 0, slotCount, task.getSequence());
+        return slot >= 0 && tasks[slot] == task;
+    }
+
+    /**
+     * Returns the number of tasks listed.
+     *
+     * @return the number of tasks
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the tasks listed here and in every other list, in list order, by walking this list
+     * and looking each task up in the others. Cheapest when this is the shortest list. The walk
+     * happens as the result is iterated, so a caller that stops early never looks at the rest.
+     *
+     * @param others the lists to intersect with
+     * @return the tasks listed in every list
+     */
+    Iterable<Task> intersect(ArrayList<PostingList> others) {
+        return () -> new Iterator<>() {
+            private final Iterator<Task> walk = iterator();
+            private Task next; // Found by hasNext but not yet returned
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = findNext();
+                }
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Task task = next;
+                next = null;
+                return task;
+            }
+
+            private Task findNext() {
+                while (walk.hasNext()) {
+                    Task task = walk.next();
+                    if (isInAll(task, others)) {
+                        return task;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private boolean isInAll(Task task, ArrayList<PostingList> others) {
+        for (PostingList other : others) {
+            if (other != this && !other.contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tasks listed in any of the lists, in list order, by merging them: the list whose
+     * next task comes first in the list is always taken from next.
+     *
+     * @param lists the lists to merge
+     * @return every listed task once
+     */
+    static ArrayList<Task> union(ArrayList<PostingList> lists) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, lists.size()),
+                (first, second) -> Integer.compare(first.current.getSequence(),
+                        second.current.getSequence()));
+        for (PostingList list : lists) {
+            Cursor cursor = new Cursor(list.iterator());
+            if (cursor.current != null) {
+                cursors.add(cursor);
+            }
+        }
+
+        ArrayList<Task> merged = new ArrayList<>();
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            if (merged.isEmpty() || merged.get(merged.size() - 1) != cursor.current) {
+                merged.add(cursor.current);
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The position of a merge in one list: the next task to take from it.
+     */
+    private static class Cursor {
+        private final Iterator<Task> iterator;
+        private Task current;
+
+        private Cursor(Iterator<Task> iterator) {
+            this.iterator = iterator;
+            advance();
+        }
+
+        private boolean advance() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+    }
+
+    /**
+     * Returns an iterator over the listed tasks in list order.
+     *
+     * @return an iterator that skips removed tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int slot = nextSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < slotCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Task task = tasks[slot];
+                slot = nextSlot(slot + 1);
+                return task;
+            }
+        };
+    }
+
+    private int nextSlot(int slot) {
+        while (slot < slotCount && tasks[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Moves the listed tasks to the front, dropping the empty slots.
+     */
+    private void compact() {
+        int writeSlot = 0;
+        for (int readSlot = 0; readSlot < slotCount; readSlot++) {
+            if (tasks[readSlot] != null) {
+                tasks[writeSlot] = tasks[readSlot];
+                sequences[writeSlot] = sequences[readSlot];
+                writeSlot++;
+            }
+        }
+        Arrays.fill(tasks, writeSlot, slotCount, null);
+        slotCount = writeSlot;
+    }
+}
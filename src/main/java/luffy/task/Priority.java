@@ -7,6 +7,8 @@ package luffy.task;
 public enum Priority {
     LOW(3, "LOW", "L"), NORMAL(2, "NORMAL", "N"), HIGH(1, "HIGH", "H");
 
+    private static final Priority[] VALUES = values();
+
     private final int level;
     private final String displayName;
     private final String shortForm;
@@ -59,18 +61,41 @@ public enum Priority {
      * @throws IllegalArgumentException if the string doesn't match any priority
      */
     public static Priority fromString(String priorityString) {
-        String input = priorityString.trim().toUpperCase();
+        return fromString(priorityString, 0, priorityString.length());
+    }
 
-        for (Priority priority : Priority.values()) {
-            if (priority.displayName.equals(input) || priority.shortForm.equals(input)) {
+    /**
+     * Parses a range of characters into a Priority enum value without copying them. Accepts the
+     * same full names, short forms and numbers as fromString(String).
+     *
+     * @param text the text containing the priority
+     * @param start the index of the first character of the priority
+     * @param end the index after the last character of the priority
+     * @return the corresponding Priority enum value
+     * @throws IllegalArgumentException if the range doesn't match any priority
+     */
+    public static Priority fromString(String text, int start, int end) {
+        int trimmedStart = start;
+        int trimmedEnd = end;
+        while (trimmedStart < trimmedEnd && Character.isWhitespace(text.charAt(trimmedStart))) {
+            trimmedStart++;
+        }
+        while (trimmedEnd > trimmedStart && Character.isWhitespace(text.charAt(trimmedEnd - 1))) {
+            trimmedEnd--;
+        }
+        int length = trimmedEnd - trimmedStart;
+
+        for (Priority priority : VALUES) {
+            if (matches(priority.displayName, text, trimmedStart, length)
+                    || matches(priority.shortForm, text, trimmedStart, length)) {
                 return priority;
             }
         }
 
         // Try parsing as numbers: 1=HIGH, 2=NORMAL, 3=LOW
         try {
-            int level = Integer.parseInt(input);
-            for (Priority priority : Priority.values()) {
+            int level = Integer.parseInt(text, trimmedStart, trimmedEnd, 10);
+            for (Priority priority : VALUES) {
                 if (priority.level == level) {
                     return priority;
                 }
@@ -79,10 +104,14 @@ public enum Priority {
             // Not a number, continue with string matching
         }
 
-        throw new IllegalArgumentException("Invalid priority: " + priorityString
+        throw new IllegalArgumentException("Invalid priority: " + text.substring(start, end)
                 + ". Valid options: HIGH/H/1, NORMAL/N/2, LOW/L/3");
     }
 
+    private static boolean matches(String name, String text, int start, int length) {
+        return name.length() == length && text.regionMatches(true, start, name, 0, length);
+    }
+
     @Override
     public String toString() {
         return shortForm;
@@ -3,8 +3,15 @@ package luffy.task;
 /**
  * Represents a generic task with a description, completion status, and priority level. This is the
  * base class for all task types in the Luffy task management system.
+ *
+ * Each task also has a stable numeric ID that, unlike its position in the list, does not change
+ * when other tasks are deleted. The ID is 0 until the task is added to a TaskList.
  */
 public class Task {
+    public static final int NO_ID = 0;
+
+    private int id;
+    private int sequence; // Order in which the task was added to its TaskList
     private String description;
     private boolean isDone;
     private Priority priority;
@@ -21,6 +28,42 @@ public class Task {
         this.description = description;
         this.isDone = false;
         this.priority = Priority.NORMAL;
+        this.id = NO_ID;
+    }
+
+    /**
+     * Returns the stable ID of this task.
+     *
+     * @return the task ID, or NO_ID if none has been assigned yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the stable ID of this task. IDs are normally assigned by TaskList or restored by
+     * Storage.
+     *
+     * @param id the new ID, which must be positive
+     */
+    public void setId(int id) {
+        assert id > NO_ID : "Task ID must be positive";
+        this.id = id;
+    }
+
+    /**
+     * Returns the order in which this task was added to its TaskList. Tasks of a list are always
+     * in ascending order of sequence, and unlike the position, the sequence does not change when
+     * other tasks are removed.
+     *
+     * @return the insertion sequence of this task
+     */
+    int getSequence() {
+        return sequence;
+    }
+
+    void setSequence(int sequence) {
+        this.sequence = sequence;
     }
 
     /**
@@ -1,41 +1,134 @@
 package luffy.task;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeMap;
 import java.time.LocalDateTime;
-import java.time.LocalDate;
 
 /**
  * Contains the task list and provides operations to add/delete tasks in the list. This class
  * manages a collection of Task objects and provides methods to manipulate and query the collection.
+ *
+ * Besides their position, tasks can be looked up by their stable ID through a hash index. Every
+ * task gets an ID when it enters the list, unless it already has one that no other task uses.
+ * The position of each ID is also cached; a removal only invalidates the cached positions from
+ * the removed index onwards, which are recomputed the next time they are needed.
+ *
+ * Deadlines and events with LocalDateTime dates are also indexed by day: deadlines and single-day
+ * events in a sorted map from epoch day to tasks, and events spanning several days in an interval
+ * tree. Both are kept up to date on add and remove, so looking up the tasks on a date does not
+ * scan the list.
+ *
+ * Every task is also given an insertion sequence as it enters the list. Tasks are only ever added
+ * to the end, so list order is ascending sequence order, and indexes put their results in list
+ * order by sequence without looking up positions, which may need recomputing after a removal.
+ *
+ * The words of every description are kept in an inverted index (see KeywordIndex) so that find
+ * only has to check the tasks that can match. Descriptions should therefore be changed through
+ * setDescription, which keeps the index in step.
  */
 public class TaskList {
     private ArrayList<Task> tasks;
+    private HashMap<Integer, Task> tasksById;
+    private HashMap<Integer, Integer> positionsById;
+    private int firstStalePosition; // Cached positions from this index onwards may be wrong
+    private int nextId;
+    private int nextSequence;
+    private TreeMap<Long, ArrayList<Task>> tasksByDay;
+    private EventIntervalTree multiDayEvents;
+    private KeywordIndex keywordIndex;
+    private boolean hasNewIds; // Some tasks given to the constructor were given new IDs
 
     /**
      * Creates a new empty task list.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
-     * Creates a new task list with the specified list of tasks.
+     * Creates a new task list with the specified list of tasks. Tasks without an ID, or whose ID
+     * is already taken by an earlier task, are given a new one.
      *
      * @param tasks the initial list of tasks
      */
     public TaskList(ArrayList<Task> tasks) {
         assert tasks != null : "Task list cannot be null";
         this.tasks = tasks;
+        this.tasksById = new HashMap<>();
+        this.positionsById = new HashMap<>();
+        this.nextId = Task.NO_ID + 1;
+        this.tasksByDay = new TreeMap<>();
+        this.multiDayEvents = new EventIntervalTree();
+        this.keywordIndex = new KeywordIndex();
+
+        for (Task task : tasks) {
+            if (task.getId() != Task.NO_ID && !tasksById.containsKey(task.getId())) {
+                tasksById.put(task.getId(), task);
+                nextId = Math.max(nextId, task.getId() + 1);
+            }
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (tasksById.get(task.getId()) != task) {
+                assignId(task);
+                hasNewIds = true;
+            }
+            positionsById.put(task.getId(), i);
+            assignSequence(task);
+            indexDates(task);
+            keywordIndex.add(task);
+        }
+        this.firstStalePosition = tasks.size();
     }
 
     /**
-     * Adds a task to the end of the task list.
+     * Returns whether any of the tasks given to the constructor had no ID, or an ID already taken,
+     * and was given a new one. Such IDs only exist in memory until the whole list is saved.
+     *
+     * @return true if the constructor assigned any new ID
+     */
+    public boolean hasNewIds() {
+        return hasNewIds;
+    }
+
+    /**
+     * Adds a task to the end of the task list, giving it an ID if it has none or its ID is taken.
      *
      * @param task the task to add to the list
      */
     public void add(Task task) {
         assert task != null : "Cannot add null task to the list";
+        if (task.getId() == Task.NO_ID || tasksById.containsKey(task.getId())) {
+            assignId(task);
+        } else {
+            tasksById.put(task.getId(), task);
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        if (firstStalePosition == tasks.size()) {
+            positionsById.put(task.getId(), tasks.size());
+            firstStalePosition++;
+        }
         tasks.add(task);
+        assignSequence(task);
+        indexDates(task);
+        keywordIndex.add(task);
+    }
+
+    private void assignSequence(Task task) {
+        assert nextSequence < Integer.MAX_VALUE : "Ran out of task sequence numbers";
+        task.setSequence(nextSequence);
+        nextSequence++;
+    }
+
+    /**
+     * Gives the task the next unused ID and indexes it.
+     */
+    private void assignId(Task task) {
+        task.setId(nextId);
+        nextId++;
+        tasksById.put(task.getId(), task);
     }
 
     /**
@@ -47,7 +140,206 @@ public class TaskList {
      */
     public Task remove(int index) {
         assert index >= 0 && index < tasks.size() : "Index must be within valid range: " + index;
-        return tasks.remove(index);
+        Task task = tasks.remove(index);
+        tasksById.remove(task.getId());
+        positionsById.remove(task.getId());
+        firstStalePosition = Math.min(firstStalePosition, index);
+        unindexDates(task);
+        keywordIndex.remove(task);
+        return task;
+    }
+
+    /**
+     * Removes the tasks at the specified indices in a single pass over the list, moving each
+     * remaining task at most once.
+     *
+     * @param indices the distinct indices of the tasks to remove, in ascending order
+     * @return the removed tasks, in list order
+     */
+    public ArrayList<Task> removeAll(int[] indices) {
+        ArrayList<Task> removedTasks = new ArrayList<>(indices.length);
+        if (indices.length == 0) {
+            return removedTasks;
+        }
+        assert indices[0] >= 0 && indices[indices.length - 1] < tasks.size()
+                : "Indices must be within valid range";
+
+        int nextRemoval = 0;
+        int writeIndex = indices[0];
+        for (int readIndex = indices[0]; readIndex < tasks.size(); readIndex++) {
+            Task task = tasks.get(readIndex);
+            if (nextRemoval < indices.length && indices[nextRemoval] == readIndex) {
+                nextRemoval++;
+                removedTasks.add(task);
+                tasksById.remove(task.getId());
+                positionsById.remove(task.getId());
+                unindexDates(task);
+                keywordIndex.remove(task);
+            } else {
+                tasks.set(writeIndex, task);
+                writeIndex++;
+            }
+        }
+        assert nextRemoval == indices.length : "Indices must be distinct and ascending";
+        tasks.subList(writeIndex, tasks.size()).clear();
+        firstStalePosition = Math.min(firstStalePosition, indices[0]);
+        return removedTasks;
+    }
+
+    /**
+     * Changes the description of the task at the specified index, updating the keyword index.
+     *
+     * @param index the index of the task to change
+     * @param description the new description
+     */
+    public void setDescription(int index, String description) {
+        assert index >= 0 && index < tasks.size() : "Index must be within valid range: " + index;
+        Task task = tasks.get(index);
+        keywordIndex.remove(task);
+        task.setDescription(description);
+        keywordIndex.add(task);
+    }
+
+    /**
+     * Finds all tasks whose descriptions contain every keyword, ignoring case. A keyword may be any
+     * part of a word, or several words, exactly like a substring search. The candidates are taken
+     * from the keyword index in list order, or the whole list is checked if they are too many.
+     *
+     * @param keywords the keywords to search for
+     * @return the tasks that contain every keyword
+     */
+    public ArrayList<Task> find(String[] keywords) {
+        return find(keywords, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds one page of the tasks whose descriptions contain every keyword, in list order. The
+     * tasks or candidates are walked in list order without being collected or sorted first, and
+     * the walk stops as soon as the page is filled, so later tasks are never looked at.
+     *
+     * @param keywords the keywords to search for
+     * @param offset the number of matching tasks to skip
+     * @param limit the maximum number of matching tasks to return
+     * @return at most limit matching tasks, starting after the first offset matches
+     */
+    public ArrayList<Task> find(String[] keywords, int offset, int limit) {
+        assert keywords != null : "Keywords cannot be null";
+        assert offset >= 0 && limit >= 0 : "Offset and limit cannot be negative";
+        String[] lowerKeywords = new String[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            lowerKeywords[i] = keywords[i].toLowerCase();
+        }
+
+        Iterable<Task> candidates = keywordIndex.findCandidates(lowerKeywords, tasks.size());
+        Iterable<Task> tasksToCheck = candidates == null ? tasks : candidates;
+
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        if (limit == 0) {
+            return matchingTasks;
+        }
+        int skipped = 0;
+        for (Task task : tasksToCheck) {
+            if (!KeywordIndex.containsAll(task.getDescription().toLowerCase(), lowerKeywords)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            matchingTasks.add(task);
+            if (matchingTasks.size() == limit) {
+                break; // The candidates are found lazily, so the rest are never looked at
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Adds a dated deadline or event to the date index. Other tasks are ignored.
+     */
+    private void indexDates(Task task) {
+        if (task instanceof Deadline && ((Deadline) task).hasDateTime()) {
+            long day = ((Deadline) task).getBy().toLocalDate().toEpochDay();
+            tasksByDay.computeIfAbsent(day, key -> new ArrayList<>()).add(task);
+        } else if (task instanceof Event && ((Event) task).hasDateTime()) {
+            Event event = (Event) task;
+            long startDay = event.getFrom().toLocalDate().toEpochDay();
+            long endDay = event.getTo().toLocalDate().toEpochDay();
+            if (startDay == endDay) {
+                tasksByDay.computeIfAbsent(startDay, key -> new ArrayList<>()).add(task);
+            } else {
+                multiDayEvents.add(event, startDay, endDay);
+            }
+        }
+    }
+
+    /**
+     * Removes a task added by indexDates from the date index.
+     */
+    private void unindexDates(Task task) {
+        if (task instanceof Deadline && ((Deadline) task).hasDateTime()) {
+            removeFromDay(((Deadline) task).getBy().toLocalDate().toEpochDay(), task);
+        } else if (task instanceof Event && ((Event) task).hasDateTime()) {
+            Event event = (Event) task;
+            long startDay = event.getFrom().toLocalDate().toEpochDay();
+            long endDay = event.getTo().toLocalDate().toEpochDay();
+            if (startDay == endDay) {
+                removeFromDay(startDay, task);
+            } else {
+                multiDayEvents.remove(event, startDay);
+            }
+        }
+    }
+
+    private void removeFromDay(long day, Task task) {
+        ArrayList<Task> tasksOnDay = tasksByDay.get(day);
+        for (int i = 0; i < tasksOnDay.size(); i++) {
+            if (tasksOnDay.get(i) == task) {
+                tasksOnDay.remove(i);
+                break;
+            }
+        }
+        if (tasksOnDay.isEmpty()) {
+            tasksByDay.remove(day);
+        }
+    }
+
+    /**
+     * Returns the task with the specified ID.
+     *
+     * @param id the ID of the task to return
+     * @return the task with that ID, or null if there is none
+     */
+    public Task getById(int id) {
+        return tasksById.get(id);
+    }
+
+    /**
+     * Returns the current index of the task with the specified ID. Positions cached before the
+     * last removal are recomputed up to the task if needed.
+     *
+     * @param id the ID of the task to locate
+     * @return the 0-based index of the task, or -1 if there is no task with that ID
+     */
+    public int indexOfId(int id) {
+        if (!tasksById.containsKey(id)) {
+            return -1;
+        }
+        Integer position = positionsById.get(id);
+        if (position != null && position < firstStalePosition) {
+            return position;
+        }
+
+        while (firstStalePosition < tasks.size()) {
+            Task task = tasks.get(firstStalePosition);
+            positionsById.put(task.getId(), firstStalePosition);
+            firstStalePosition++;
+            if (task.getId() == id) {
+                return firstStalePosition - 1;
+            }
+        }
+        assert false : "Indexed task " + id + " is missing from the list";
+        return -1;
     }
 
     /**
@@ -94,7 +386,7 @@ public class TaskList {
      * Finds all deadline and event tasks that occur on the specified date. For deadlines, matches
      * if the due date falls on the target date. For events, matches if the target date falls within
      * the event's date range. Only considers tasks with LocalDateTime objects (ignores string-based
-     * tasks).
+     * tasks). The tasks are looked up in the date index and returned in list order.
      *
      * @param targetDate the date to search for (time component is ignored)
      * @return a list of tasks that occur on the specified date
@@ -102,40 +394,26 @@ public class TaskList {
     public ArrayList<Task> getTasksOnDate(LocalDateTime targetDate) {
         assert targetDate != null : "Target date cannot be null";
         // Get just the date part (ignore time for comparison)
-        LocalDate targetDateOnly = targetDate.toLocalDate();
+        long targetDay = targetDate.toLocalDate().toEpochDay();
 
-        ArrayList<Task> matchingTasks = new ArrayList<>();
+        // Tasks are appended to their day in list order, so only the multi-day events need sorting
+        ArrayList<Task> tasksOnDay = tasksByDay.getOrDefault(targetDay, new ArrayList<>());
+        ArrayList<Task> eventsOnDay = new ArrayList<>();
+        multiDayEvents.collect(targetDay, eventsOnDay);
+        eventsOnDay.sort(Comparator.comparingInt(Task::getSequence));
 
-        for (Task task : tasks) {
-            boolean matches = false;
-
-            if (task instanceof Deadline) {
-                Deadline deadline = (Deadline) task;
-                if (deadline.hasDateTime()) {
-                    LocalDate deadlineDate = deadline.getBy().toLocalDate();
-                    if (deadlineDate.equals(targetDateOnly)) {
-                        matches = true;
-                    }
-                }
-            } else if (task instanceof Event) {
-                Event event = (Event) task;
-                if (event.hasDateTime()) {
-                    LocalDate eventStartDate = event.getFrom().toLocalDate();
-                    LocalDate eventEndDate = event.getTo().toLocalDate();
-
-                    // Event matches if target date falls within the event's date range
-                    if (!targetDateOnly.isBefore(eventStartDate)
-                            && !targetDateOnly.isAfter(eventEndDate)) {
-                        matches = true;
-                    }
-                }
-            }
-
-            if (matches) {
-                matchingTasks.add(task);
+        ArrayList<Task> matchingTasks = new ArrayList<>(tasksOnDay.size() + eventsOnDay.size());
+        int dayIndex = 0;
+        int eventIndex = 0;
+        while (dayIndex < tasksOnDay.size() || eventIndex < eventsOnDay.size()) {
+            if (eventIndex == eventsOnDay.size() || (dayIndex < tasksOnDay.size()
+                    && tasksOnDay.get(dayIndex).getSequence()
+                            < eventsOnDay.get(eventIndex).getSequence())) {
+                matchingTasks.add(tasksOnDay.get(dayIndex++));
+            } else {
+                matchingTasks.add(eventsOnDay.get(eventIndex++));
             }
         }
-
         return matchingTasks;
     }
 }
@@ -0,0 +1,98 @@
+package luffy.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * An index from every run of three characters (trigram) in the lowercased task descriptions to
+ * the tasks that contain it. Any substring of at least three characters can only occur in tasks
+ * that contain all of its trigrams, so intersecting their tasks yields a small candidate set for
+ * keywords that are parts of words or span several words. Candidates still have to be checked
+ * against the description, since the trigrams may occur in a different order.
+ *
+ * Each trigram is packed into a long, 16 bits per character, so no strings are created for it.
+ * The tasks of each trigram are kept in list order in a PostingList.
+ */
+class TrigramIndex {
+    static final int TRIGRAM_LENGTH = 3;
+    private static final int CHAR_BITS = 16;
+
+    private final HashMap<Long, PostingList> tasksByTrigram = new HashMap<>();
+    private final HashMap<Task, long[]> trigramsByTask = new HashMap<>();
+
+    /**
+     * Indexes the trigrams of a task's lowercased description.
+     *
+     * @param task the task to index
+     * @param description the lowercased description of the task
+     */
+    void add(Task task, String description) {
+        long[] trigrams = distinctTrigrams(description);
+        trigramsByTask.put(task, trigrams);
+        for (long trigram : trigrams) {
+            tasksByTrigram.computeIfAbsent(trigram, key -> new PostingList()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task, using the trigrams it was indexed under.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        long[] trigrams = trigramsByTask.remove(task);
+        if (trigrams == null) {
+            return;
+        }
+        for (long trigram : trigrams) {
+            PostingList postings = tasksByTrigram.get(trigram);
+            postings.remove(task);
+            if (postings.isEmpty()) {
+                tasksByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks of every trigram of the keyword. A task can only contain the keyword if it
+     * is listed under all of them.
+     *
+     * @param keyword a lowercased keyword of at least TRIGRAM_LENGTH characters
+     * @return the posting list of each distinct trigram, or a single empty list if some trigram
+     *     occurs in no description
+     */
+    ArrayList<PostingList> findPostingLists(String keyword) {
+        assert keyword.length() >= TRIGRAM_LENGTH : "Keyword is too short: " + keyword;
+        ArrayList<PostingList> postingLists = new ArrayList<>();
+        for (long trigram : distinctTrigrams(keyword)) {
+            PostingList postings = tasksByTrigram.get(trigram);
+            if (postings == null) {
+                postingLists.clear();
+                postingLists.add(new PostingList());
+                break;
+            }
+            postingLists.add(postings);
+        }
+        return postingLists;
+    }
+
+    private static long[] distinctTrigrams(String text) {
+        HashSet<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(pack(text, i));
+        }
+        long[] packed = new long[trigrams.size()];
+        int i = 0;
+        for (long trigram : trigrams) {
+            packed[i++] = trigram;
+        }
+        return packed;
+    }
+
+    private static long pack(String text, int start) {
+        return ((long) text.charAt(start) << (2 * CHAR_BITS))
+                | ((long) text.charAt(start + 1) << CHAR_BITS)
+                | text.charAt(start + 2);
+    }
+}
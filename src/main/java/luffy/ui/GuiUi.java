@@ -125,7 +125,7 @@ public class GuiUi extends Ui {
     }
 
     /**
-     * Captures the task list in the response.
+     * Captures the task list, with the ID of each task, in the response.
      *
      * @param tasks the task list to display
      */
@@ -133,7 +133,9 @@ public class GuiUi extends Ui {
     public void showTaskList(TaskList tasks) {
         response.append("Here are the tasks in your list:\n");
         for (int i = 0; i < tasks.size(); i++) {
-            response.append((i + 1)).append(". ").append(tasks.get(i).toString()).append("\n");
+            Task task = tasks.get(i);
+            response.append((i + 1)).append(". ").append(task).append(" (ID #")
+                    .append(task.getId()).append(")\n");
         }
     }
 
@@ -111,14 +111,15 @@ public class Ui {
     }
 
     /**
-     * Displays the task list.
+     * Displays the task list, with the ID of each task.
      *
      * @param tasks the task list to display
      */
     public void showTaskList(TaskList tasks) {
         System.out.println("Here are the tasks in your list:");
         for (int i = 0; i < tasks.size(); i++) {
-            System.out.println((i + 1) + ". " + tasks.get(i).toString());
+            Task task = tasks.get(i);
+            System.out.println((i + 1) + ". " + task + " (ID #" + task.getId() + ")");
         }
     }
 
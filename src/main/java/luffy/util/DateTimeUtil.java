@@ -1,7 +1,13 @@
 package luffy.util;
 
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Map;
 
 /**
  * Utility class for date/time formatting operations. Provides methods for converting LocalDateTime
@@ -9,6 +15,13 @@ import java.time.format.DateTimeFormatter;
  * storage.
  */
 public class DateTimeUtil {
+    private static final DateTimeFormatter DATE_DISPLAY_FORMATTER =
+            DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final DateTimeFormatter DATE_TIME_DISPLAY_FORMATTER =
+            new DateTimeFormatterBuilder()
+                    .appendPattern("MMM dd yyyy, h:mm ")
+                    .appendText(ChronoField.AMPM_OF_DAY, Map.of(0L, "am", 1L, "pm"))
+                    .toFormatter();
 
     /**
      * Formats LocalDateTime for display in a user-friendly format. Uses smart formatting: shows
@@ -16,18 +29,19 @@ public class DateTimeUtil {
      * 
      * Format examples: - Date only: "Oct 15 2019" - Date with time: "Oct 15 2019, 6:00 pm"
      *
+     * The formatters are created once. Tasks cache the formatted strings of their own dates, so
+     * this is called once per date rather than once per time a task is shown.
+     *
      * @param dateTime the LocalDateTime to format
      * @return formatted date/time string for user display
      */
     public static String formatDateTime(LocalDateTime dateTime) {
         if (dateTime.getHour() == 23 && dateTime.getMinute() == 59) {
             // This was likely a date-only input, show just the date
-            return dateTime.format(DateTimeFormatter.ofPattern("MMM dd yyyy"));
+            return DATE_DISPLAY_FORMATTER.format(dateTime);
         } else {
-            // Show full date and time
-            String formatted = dateTime.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a"));
-            // Only convert AM/PM to lowercase, keep the rest as is
-            return formatted.replaceAll("\\bAM\\b", "am").replaceAll("\\bPM\\b", "pm");
+            // Show full date and time, with am/pm written in lower case by the formatter
+            return DATE_TIME_DISPLAY_FORMATTER.format(dateTime);
         }
     }
 
@@ -53,4 +67,88 @@ public class DateTimeUtil {
     public static LocalDateTime parseDateTimeFromFile(String dateTimeStr) {
         return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
+
+    /**
+     * Parses a LocalDateTime in the ISO format written by formatDateTimeForFile from a range of
+     * characters, without throwing or allocating on failure. Accepts yyyy-MM-ddTHH:mm with
+     * optional seconds and fraction of a second, and validates fields as strictly as
+     * parseDateTimeFromFile. Signed years, written for years outside 0000 to 9999, are left to
+     * parseDateTimeFromFile. Used when loading large files, where many values may be legacy
+     * strings rather than dates.
+     *
+     * @param text the text containing the date/time
+     * @param start the index of the first character of the date/time
+     * @param end the index after the last character of the date/time
+     * @return the parsed LocalDateTime, or null if the range is not an ISO date/time
+     */
+    public static LocalDateTime tryParseDateTimeFromFile(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length > 0 && (text.charAt(start) == '+' || text.charAt(start) == '-')) {
+            // Years outside 0000 to 9999 are written with a sign and any number of digits
+            try {
+                return parseDateTimeFromFile(text.subSequence(start, end).toString());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        // Shortest form is yyyy-MM-ddTHH:mm (16 chars), longest has 9 fraction digits (29 chars)
+        if (length < 16 || length > 29 || length == 17 || length == 18 || length == 20
+                || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-'
+                || text.charAt(start + 10) != 'T' || text.charAt(start + 13) != ':') {
+            return null;
+        }
+
+        int year = parseDigits(text, start, 4);
+        int month = parseDigits(text, start + 5, 2);
+        int day = parseDigits(text, start + 8, 2);
+        int hour = parseDigits(text, start + 11, 2);
+        int minute = parseDigits(text, start + 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (text.charAt(start + 16) != ':') {
+                return null;
+            }
+            second = parseDigits(text, start + 17, 2);
+        }
+        if (length > 19) {
+            if (text.charAt(start + 19) != '.') {
+                return null;
+            }
+            int fractionDigits = length - 20;
+            nano = parseDigits(text, start + 20, fractionDigits);
+            for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                nano *= 10;
+            }
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59 || nano < 0) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /**
+     * Parses a fixed number of decimal digits.
+     *
+     * @param text the text containing the digits
+     * @param start the index of the first digit
+     * @param count the number of digits, at most 9
+     * @return the value of the digits, or -1 if any character is not a digit
+     */
+    private static int parseDigits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
 }
@@ -445,4 +445,89 @@ public class CommandTest {
         AddTodoCommand command = new AddTodoCommand("test");
         assertFalse(command.isExit());
     }
+
+    // Tests for addressing tasks by ID
+    @Test
+    public void deleteCommand_byId_deletesTaskWithThatId() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        tasks.add(new Todo("task 3"));
+
+        new DeleteCommand(TaskTarget.ofId(1)).execute(tasks, mockUi, mockStorage);
+        new MarkCommand(TaskTarget.parse("#3")).execute(tasks, mockUi, mockStorage);
+
+        assertEquals(2, tasks.size());
+        assertEquals("task 2", tasks.get(0).getDescription());
+        assertTrue(tasks.get(1).isDone());
+    }
+
+    @Test
+    public void markCommand_unknownId_throwsException() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task 1"));
+
+        LuffyException exception = assertThrows(LuffyException.class, () -> {
+            new MarkCommand(TaskTarget.ofId(5)).execute(tasks, mockUi, mockStorage);
+        });
+        assertTrue(exception.getMessage().contains("#5"));
+    }
+
+    // Tests for commands on several tasks
+    @Test
+    public void deleteCommand_listAndRange_deletesEverySelectedTask() throws Exception {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 6; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        TaskSelection selection = TaskSelection.parse("2,#6,3-4", 0, 8);
+        new DeleteCommand(selection).execute(tasks, mockUi, mockStorage);
+
+        assertEquals(2, tasks.size());
+        assertEquals("task 1", tasks.get(0).getDescription());
+        assertEquals("task 5", tasks.get(1).getDescription());
+        assertTrue(mockStorage.wasSaveCalled());
+    }
+
+    @Test
+    public void markCommand_rangeOutOfBounds_changesNoTask() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+
+        assertThrows(LuffyException.class, () -> {
+            new MarkCommand(TaskSelection.parse("1-3", 0, 3)).execute(tasks, mockUi, mockStorage);
+        });
+        assertFalse(tasks.get(0).isDone());
+        assertFalse(tasks.get(1).isDone());
+    }
+
+    @Test
+    public void deleteCommand_whereDone_deletesOnlyDoneTasks() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        tasks.add(new Todo("task 3"));
+        tasks.get(0).setDone(true);
+        tasks.get(2).setDone(true);
+
+        new DeleteCommand(TaskSelection.where(Task::isDone, "done"))
+                .execute(tasks, mockUi, mockStorage);
+
+        assertEquals(1, tasks.size());
+        assertEquals("task 2", tasks.get(0).getDescription());
+    }
+
+    @Test
+    public void markCommand_filterWithNoMatches_changesNothing() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task 1"));
+
+        new MarkCommand(TaskSelection.where(Task::isDone, "done"))
+                .execute(tasks, mockUi, mockStorage);
+
+        assertFalse(tasks.get(0).isDone());
+        assertFalse(mockStorage.wasSaveCalled());
+    }
 }
@@ -14,6 +14,7 @@ import luffy.task.Todo;
 import luffy.task.Deadline;
 import luffy.task.Event;
 import luffy.task.TaskList;
+import luffy.task.Priority;
 import luffy.ui.Ui;
 import luffy.storage.Storage;
 
@@ -32,9 +33,10 @@ public class FindCommandTest {
             return tasks.size();
         }
 
-        // Helper method for setup
+        // Helper method for setup; also indexes the task for searching
         public void addTask(Task task) {
             tasks.add(task);
+            add(task);
         }
     }
 
@@ -302,4 +304,39 @@ public class FindCommandTest {
         FindCommand command = new FindCommand(new String[] {"book"});
         assertFalse(command.isExit());
     }
+
+    // Tests for paged and ranked results
+    @Test
+    public void findCommand_secondPage_showsTasksAfterFirstPage() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            mockTasks.addTask(new Todo("book " + i));
+        }
+
+        FindCommand command = new FindCommand(new String[] {"book"}, 2, 2, false);
+        command.execute(mockTasks, mockUi, mockStorage);
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("(page 2)"));
+        assertTrue(output.contains("3.[T][ ][N] book 3"));
+        assertTrue(output.contains("4.[T][ ][N] book 4"));
+        assertFalse(output.contains("book 2"));
+        assertFalse(output.contains("book 5"));
+    }
+
+    @Test
+    public void findCommand_ranked_ordersByPriorityThenKeywordHits() throws Exception {
+        mockTasks.addTask(new Todo("read book"));
+        mockTasks.addTask(new Todo("book club book"));
+        Todo urgent = new Todo("return book");
+        urgent.setPriority(Priority.HIGH);
+        mockTasks.addTask(urgent);
+
+        FindCommand command = new FindCommand(new String[] {"book"}, FindCommand.NO_LIMIT, 1, true);
+        command.execute(mockTasks, mockUi, mockStorage);
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("1.[T][ ][H] return book"));
+        assertTrue(output.contains("2.[T][ ][N] book club book"));
+        assertTrue(output.contains("3.[T][ ][N] read book"));
+    }
 }
@@ -0,0 +1,38 @@
+package luffy.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import luffy.command.AddTodoCommand;
+import luffy.command.ListCommand;
+import luffy.command.StatsCommand;
+
+public class CommandMetricsTest {
+
+    @Test
+    public void typeOf_commands_returnsShortNames() {
+        assertEquals("todo", CommandMetrics.typeOf(new AddTodoCommand("read book")));
+        assertEquals("list", CommandMetrics.typeOf(new ListCommand()));
+        assertEquals("stats", CommandMetrics.typeOf(new StatsCommand()));
+    }
+
+    @Test
+    public void report_recordedCommands_showsCountsAndFailures() {
+        CommandMetrics metrics = new CommandMetrics();
+        metrics.recordParse("mark", 2_000);
+        metrics.recordExecution("mark", 50_000, 20_000, 9, 1_024, true);
+        metrics.recordParse("mark", 3_000);
+        metrics.recordExecution("mark", 70_000, 0, 0, 3_072, false);
+        metrics.recordParse(CommandMetrics.INVALID_TYPE, 1_000);
+
+        String report = metrics.report();
+        assertTrue(report.contains("mark: 2 runs, 1 failed"), report);
+        assertTrue(report.contains("allocated 2.0 KB per run, wrote 9 B"), report);
+        assertTrue(report.contains("invalid: 1 could not be parsed"), report);
+    }
+
+    @Test
+    public void report_noCommands_saysSo() {
+        assertTrue(new CommandMetrics().report().contains("No commands have been run yet."));
+    }
+}
@@ -0,0 +1,49 @@
+package luffy.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getPercentile_noValues_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void getPercentile_smallValues_returnsExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(5, histogram.getPercentile(50));
+        assertEquals(10, histogram.getPercentile(99));
+        assertEquals(10, histogram.getMax());
+        assertEquals(55, histogram.getTotal());
+    }
+
+    @Test
+    public void getPercentile_largeValues_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 >= 50_000_000 && p50 <= 50_000_000 * 1.07, "p50 was " + p50);
+        assertTrue(p99 >= 99_000_000 && p99 <= 100_000_000, "p99 was " + p99);
+        assertEquals(100_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void indexOf_bucketBoundaries_containValue() {
+        long[] values = {0, 15, 16, 17, 31, 32, 33, 1_000_000, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.upperBoundOf(index - 1) < value);
+        }
+    }
+}
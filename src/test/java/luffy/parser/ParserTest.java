@@ -1,5 +1,6 @@
 package luffy.parser;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -9,6 +10,11 @@ import luffy.command.*;
 
 public class ParserTest {
 
+    @AfterEach
+    public void tearDown() {
+        Parser.unregisterCommand("showall");
+    }
+
     // Tests for parseDateTime method
     @Test
     public void parseDateTime_validYearMonthDay_returnsCorrectDateTime() throws LuffyException {
@@ -64,6 +70,22 @@ public class ParserTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void parseDateTime_mixedCaseMeridiem_returnsCorrectDateTime() throws LuffyException {
+        assertEquals(LocalDateTime.of(2024, 12, 15, 9, 5),
+                Parser.parseDateTime("2024-12-15 9:05 aM"));
+        assertEquals(LocalDateTime.of(2024, 12, 2, 12, 0),
+                Parser.parseDateTime("2/12/2024 12:00 Pm"));
+    }
+
+    @Test
+    public void parseDateTime_malformedTime_throwsLuffyException() {
+        assertThrows(LuffyException.class, () -> Parser.parseDateTime("2024-12-15 6:00"));
+        assertThrows(LuffyException.class, () -> Parser.parseDateTime("2024-12-15 18:00pm"));
+        assertThrows(LuffyException.class, () -> Parser.parseDateTime("2024-12-15 2460"));
+        assertThrows(LuffyException.class, () -> Parser.parseDateTime("15/13/2024 1430"));
+    }
+
     @Test
     public void parseDateTime_invalidFormat_throwsLuffyException() {
         assertThrows(LuffyException.class, () -> {
@@ -386,6 +408,76 @@ public class ParserTest {
         assertTrue(Parser.parse("Due 2024-12-15") instanceof DueCommand);
     }
 
+    @Test
+    public void parse_mixedCaseCommands_worksCorrectly() throws LuffyException {
+        assertTrue(Parser.parse("tOdO read") instanceof AddTodoCommand);
+        assertTrue(Parser.parse("bYe") instanceof ExitCommand);
+        assertTrue(Parser.parse("PrIoRiTy 1 high") instanceof PriorityCommand);
+        assertTrue(Parser.parse("fInD book") instanceof FindCommand);
+    }
+
+    @Test
+    public void parse_multipleSpacesBetweenArguments_parsesArguments() throws LuffyException {
+        assertTrue(Parser.parse("mark   2") instanceof MarkCommand);
+        assertTrue(Parser.parse("delete \t #3") instanceof DeleteCommand);
+        assertTrue(Parser.parse("priority  1   low") instanceof PriorityCommand);
+        assertDoesNotThrow(() -> Parser.validateDeleteCommand("delete   1", 5));
+    }
+
+    @Test
+    public void parse_priorityWithInvalidTarget_throwsLuffyException() {
+        LuffyException exception = assertThrows(LuffyException.class, () -> {
+            Parser.parse("priority x1 high");
+        });
+        assertTrue(exception.getMessage().contains("'x1' is not a valid task number"));
+    }
+
+    @Test
+    public void parse_statsCommand_returnsStatsCommand() throws LuffyException {
+        assertTrue(Parser.parse("STATS") instanceof StatsCommand);
+        assertThrows(LuffyException.class, () -> Parser.parse("stats now"));
+    }
+
+    @Test
+    public void parse_bulkCommandsWithConditions_returnsCommands() throws LuffyException {
+        assertTrue(Parser.parse("delete where done") instanceof DeleteCommand);
+        assertTrue(Parser.parse("mark where event and due before now") instanceof MarkCommand);
+        assertTrue(Parser.parse("priority where deadline and due before 2024-12-08 high")
+                instanceof PriorityCommand);
+    }
+
+    @Test
+    public void parse_unknownCondition_throwsLuffyException() {
+        LuffyException exception = assertThrows(LuffyException.class, () -> {
+            Parser.parse("delete where tomorrow");
+        });
+        assertTrue(exception.getMessage().contains("'tomorrow'"));
+    }
+
+    @Test
+    public void parse_exactKeywordWithSuffix_throwsLuffyException() {
+        LuffyException exception = assertThrows(LuffyException.class, () -> {
+            Parser.parse("listing");
+        });
+        assertTrue(exception.getMessage().contains("I don't understand"));
+    }
+
+    @Test
+    public void registerCommand_newKeyword_parsesWithFactory() throws LuffyException {
+        Parser.registerCommand("showall", input -> new ListCommand());
+
+        assertTrue(Parser.parse("SHOWALL now") instanceof ListCommand);
+    }
+
+    @Test
+    public void unregisterCommand_registeredKeyword_isUnknownAgain() throws LuffyException {
+        Parser.registerCommand("showall", input -> new ListCommand());
+        Parser.unregisterCommand("showall");
+
+        assertThrows(LuffyException.class, () -> Parser.parse("showall"));
+        assertTrue(Parser.parse("list") instanceof ListCommand);
+    }
+
     @Test
     public void parse_unknownCommand_throwsLuffyException() {
         LuffyException exception = assertThrows(LuffyException.class, () -> {
@@ -500,4 +592,20 @@ public class ParserTest {
         });
         assertTrue(exception.getMessage().contains("What do you want to find"));
     }
+
+    @Test
+    public void parse_findCommandWithPageOptions_returnsFindCommand() throws LuffyException {
+        Command result = Parser.parse("find book /limit 50 /page 2 /rank");
+        assertTrue(result instanceof FindCommand);
+    }
+
+    @Test
+    public void parse_findCommandInvalidLimit_throwsLuffyException() {
+        LuffyException exception = assertThrows(LuffyException.class, () -> {
+            Parser.parse("find book /limit 0");
+        });
+        assertTrue(exception.getMessage().contains("/limit"));
+        assertThrows(LuffyException.class, () -> Parser.parse("find book /page"));
+        assertThrows(LuffyException.class, () -> Parser.parse("find /limit 5"));
+    }
 }
@@ -8,12 +8,21 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import luffy.task.Task;
 import luffy.task.Todo;
 import luffy.task.Deadline;
 import luffy.task.Event;
+import luffy.task.Priority;
 
 public class StorageTest {
     private Storage storage;
@@ -28,11 +37,21 @@ public class StorageTest {
     }
 
     @AfterEach
-    public void tearDown() {
+    public void tearDown() throws IOException {
+        // Stop any background writer before removing its files
+        storage.setDurabilityPolicy(DurabilityPolicy.SYNCHRONOUS);
         // Clean up test files
         if (testFile.exists()) {
             testFile.delete();
         }
+        File journalFile = new File(storage.getJournalPath());
+        if (journalFile.exists()) {
+            journalFile.delete();
+        }
+        File tempFile = new File(storage.getTempPath());
+        if (tempFile.exists()) {
+            tempFile.delete();
+        }
         // Clean up data directory if it was created during tests
         File dataDir = new File("data");
         if (dataDir.exists() && dataDir.list().length == 0) {
@@ -343,6 +362,38 @@ public class StorageTest {
         assertEquals(2, tasks.size());
     }
 
+    @Test
+    public void load_legacyLinesWithoutPriority_loadsWithNormalPriority() throws IOException {
+        FileWriter writer = new FileWriter(testFile);
+        writer.write("T | 1 | old todo\n");
+        writer.write("D | 0 | old deadline | Monday\n");
+        writer.write("E | 0 | old event | Mon 10am to Mon 12pm\n");
+        writer.close();
+
+        ArrayList<Task> tasks = storage.load();
+        assertEquals(3, tasks.size());
+        assertEquals("old todo", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isDone());
+        assertEquals("Monday", ((Deadline) tasks.get(1)).getByAsString());
+        assertEquals("Mon 10am to Mon 12pm", ((Event) tasks.get(2)).getDuration());
+        for (Task task : tasks) {
+            assertEquals(Priority.NORMAL, task.getPriority());
+        }
+    }
+
+    @Test
+    public void load_eventWithInvalidIsoDate_skipsEvent() throws IOException {
+        FileWriter writer = new FileWriter(testFile);
+        writer.write("E | 0 | HIGH | meeting | 2024-02-30T10:00:00 | 2024-03-01T12:00:00\n");
+        writer.write("D | 0 | HIGH | report | 2024-02-29T10:00\n");
+        writer.close();
+
+        ArrayList<Task> tasks = storage.load();
+        assertEquals(1, tasks.size());
+        assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0), ((Deadline) tasks.get(0)).getBy());
+        assertEquals(Priority.HIGH, tasks.get(0).getPriority());
+    }
+
     // Round-trip tests (save then load)
     @Test
     public void roundTrip_mixedTasks_maintainsAllData() throws IOException {
@@ -383,4 +434,622 @@ public class StorageTest {
         assertEquals(LocalDateTime.of(2024, 12, 15, 10, 0), loadedEvent.getFrom());
         assertEquals(LocalDateTime.of(2024, 12, 15, 12, 0), loadedEvent.getTo());
     }
+
+    // Tests for journaled mode
+    @Test
+    public void saveAdd_journalEnabled_appendsWithoutRewritingFile() throws IOException {
+        storage.setJournalEnabled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+
+        storage.saveAdd(tasks, todo);
+
+        assertFalse(testFile.exists());
+        assertTrue(new File(storage.getJournalPath()).exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("read book", loadedTasks.get(0).getDescription());
+    }
+
+    @Test
+    public void load_journalEnabled_replaysJournalOnTopOfSnapshot() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        tasks.add(new Deadline("task 3", LocalDateTime.of(2024, 12, 15, 14, 30)));
+        storage.save(tasks);
+        storage.setJournalEnabled(true);
+
+        tasks.get(0).setDone(true);
+        storage.saveStatus(tasks, 0);
+        tasks.get(2).setPriority(Priority.HIGH);
+        storage.savePriority(tasks, 2);
+        tasks.remove(1);
+        storage.saveDelete(tasks, 1);
+        Event event = new Event("task 4", "Mon 10am", "Mon 12pm");
+        tasks.add(event);
+        storage.saveAdd(tasks, event);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(3, loadedTasks.size());
+        assertEquals("task 1", loadedTasks.get(0).getDescription());
+        assertTrue(loadedTasks.get(0).isDone());
+        assertEquals("task 3", loadedTasks.get(1).getDescription());
+        assertEquals(Priority.HIGH, loadedTasks.get(1).getPriority());
+        assertTrue(loadedTasks.get(2) instanceof Event);
+    }
+
+    @Test
+    public void save_journalEnabled_clearsJournal() throws IOException {
+        storage.setJournalEnabled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+
+        storage.save(tasks);
+
+        assertFalse(new File(storage.getJournalPath()).exists());
+        assertEquals(1, new Storage(testFilePath).load().size());
+    }
+
+    @Test
+    public void load_corruptedJournalEntry_skipsEntry() throws IOException {
+        FileWriter writer = new FileWriter(storage.getJournalPath());
+        writer.write("ADD | T | 0 | NORMAL | valid todo\n");
+        writer.write("MARK | 5\n");
+        writer.write("GARBAGE\n");
+        writer.write("MARK | 0\n");
+        writer.close();
+
+        ArrayList<Task> tasks = storage.load();
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.get(0).isDone());
+    }
+
+    @Test
+    public void saveAdd_journalPastThreshold_compactsIntoSnapshot() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setCompactionThreshold(3, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Todo todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveAdd(tasks, todo);
+        }
+
+        storage.awaitCompaction();
+
+        assertTrue(testFile.exists());
+        assertFalse(new File(storage.getJournalPath()).exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(3, loadedTasks.size());
+        assertEquals("task 3", loadedTasks.get(2).getDescription());
+    }
+
+    @Test
+    public void compact_journalWithMutations_foldsJournalIntoSnapshot() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        storage.setJournalEnabled(true);
+        tasks.get(0).setDone(true);
+        storage.saveStatus(tasks, 0);
+
+        storage.compact();
+
+        assertFalse(new File(storage.getJournalPath()).exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    // Tests for write-behind persistence
+    @Test
+    public void saveAdd_fireAndForget_writesRecordAfterFlush() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FIRE_AND_FORGET, 50);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Todo todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveAdd(tasks, todo);
+        }
+
+        storage.flush();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(3, loadedTasks.size());
+        assertEquals("task 1", loadedTasks.get(0).getDescription());
+        assertEquals("task 3", loadedTasks.get(2).getDescription());
+    }
+
+    @Test
+    public void saveStatus_fsyncPerBatch_writesRecordBeforeReturning() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FSYNC_PER_BATCH);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+        todo.setDone(true);
+
+        storage.saveStatus(tasks, 0);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    @Test
+    public void save_writeBehindRecordsPending_doesNotReplayThemAgain() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FLUSH_ON_INTERVAL, 1000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+
+        storage.save(tasks);
+
+        assertEquals(1, new Storage(testFilePath).load().size());
+    }
+
+    @Test
+    public void saveStatus_fsyncPerBatchWithLongWindow_doesNotWaitForWindow() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FSYNC_PER_BATCH, 10_000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+
+        long start = System.nanoTime();
+        storage.saveAdd(tasks, todo);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 5_000, "Waited " + elapsedMillis + " ms for the batch");
+        assertEquals(1, new Storage(testFilePath).load().size());
+    }
+
+    @Test
+    public void flush_fireAndForgetAfterFailedBatch_writesFailedRecordsAgain() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FIRE_AND_FORGET, 0);
+        File journalFile = new File(storage.getJournalPath());
+        journalFile.mkdir(); // A directory cannot be appended to
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+        assertThrows(IOException.class, () -> storage.flush());
+
+        journalFile.delete();
+        storage.flush();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("read book", loadedTasks.get(0).getDescription());
+    }
+
+    @Test
+    public void save_fireAndForgetAfterFailedBatch_savesEveryTaskOnce() throws IOException {
+        storage.setJournalEnabled(true);
+        storage.setDurabilityPolicy(DurabilityPolicy.FIRE_AND_FORGET, 0);
+        File journalFile = new File(storage.getJournalPath());
+        journalFile.mkdir(); // A directory cannot be appended to
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+
+        storage.save(tasks);
+        storage.flush();
+
+        assertFalse(journalFile.exists());
+        assertEquals(1, new Storage(testFilePath).load().size());
+    }
+
+    // Tests for the binary format
+    @Test
+    public void save_binaryFormat_roundTripsEveryTaskShape() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        todo.setDone(true);
+        todo.setPriority(Priority.HIGH);
+        tasks.add(todo);
+        tasks.add(new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0)));
+        tasks.add(new Deadline("submit report", "next monday"));
+        Event precise = new Event("meeting", LocalDateTime.of(1969, 7, 20, 20, 17, 40, 5000),
+                LocalDateTime.of(2024, 2, 29, 23, 59));
+        precise.setPriority(Priority.LOW);
+        tasks.add(precise);
+        tasks.add(new Event("project", "Mon 2pm", "4pm | late"));
+        storage.setFormat(StorageFormat.BINARY);
+
+        storage.save(tasks);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(tasks.size(), loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(Storage.formatTaskForFile(tasks.get(i)),
+                    Storage.formatTaskForFile(loadedTasks.get(i)));
+        }
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_isLossless() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath);
+        writer.write("T | 1 | HIGH | read book\n");
+        writer.write("D | 0 | NORMAL | return book | 2019-12-02T18:00:00\n");
+        writer.write("D | 0 | LOW | submit report | next monday\n");
+        writer.write("E | 1 | NORMAL | meeting | 2019-12-02T14:00:30 | 2019-12-02T16:00:00\n");
+        writer.write("E | 0 | NORMAL | project | Mon 2pm to 4pm\n");
+        writer.close();
+        String binaryPath = "test_data.bin";
+        String textPath = "test_data_converted.txt";
+
+        try {
+            Storage.convert(testFilePath, binaryPath, StorageFormat.BINARY);
+            Storage.convert(binaryPath, textPath, StorageFormat.TEXT);
+
+            assertEquals(Files.readAllLines(testFile.toPath()),
+                    Files.readAllLines(new File(textPath).toPath()));
+            assertTrue(new File(binaryPath).length() < testFile.length());
+        } finally {
+            new File(binaryPath).delete();
+            new File(textPath).delete();
+        }
+    }
+
+    @Test
+    public void load_binaryFileWithJournal_appliesJournal() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(tasks);
+        storage.setJournalEnabled(true);
+        tasks.get(0).setDone(true);
+        storage.saveStatus(tasks, 0);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    @Test
+    public void load_truncatedBinaryFile_throwsIOException() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0)));
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(tasks);
+        byte[] bytes = Files.readAllBytes(testFile.toPath());
+        Files.write(testFile.toPath(),
+                Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> new Storage(testFilePath).load());
+    }
+
+    // Tests for the channel-based read path
+    @Test
+    public void load_mixedLineTerminators_readsEveryLine() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath);
+        writer.write("T | 0 | NORMAL | first\r\n");
+        writer.write("T | 1 | NORMAL | second\r");
+        writer.write("\n\n");
+        writer.write("T | 0 | HIGH | third");
+        writer.close();
+
+        ArrayList<Task> tasks = storage.load();
+
+        assertEquals(3, tasks.size());
+        assertEquals("second", tasks.get(1).getDescription());
+        assertEquals("third", tasks.get(2).getDescription());
+        assertEquals(Priority.HIGH, tasks.get(2).getPriority());
+    }
+
+    @Test
+    public void load_largeFile_readsEveryTaskInOrder() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(new Deadline("task " + i, LocalDateTime.of(2024, 1, 1, 9, 0).plusHours(i)));
+        }
+        storage.save(tasks);
+        assertTrue(testFile.length() > 64 * 1024);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(5000, loadedTasks.size());
+        assertEquals("task 0", loadedTasks.get(0).getDescription());
+        assertEquals("task 4999", loadedTasks.get(4999).getDescription());
+        assertEquals(Storage.formatTaskForFile(tasks.get(4999)),
+                Storage.formatTaskForFile(loadedTasks.get(4999)));
+    }
+
+    // Tests for parallel loading
+    @Test
+    public void load_parallelLargeFileWithCorruptLines_matchesSequentialLoad() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath);
+        for (int i = 0; i < 40000; i++) {
+            if (i % 9999 == 0) {
+                writer.write("CORRUPTED LINE " + i + "\r\n");
+            }
+            writer.write("D | 0 | NORMAL | task " + i + " | 2024-01-01T09:00:00\r\n");
+        }
+        writer.close();
+        assertTrue(testFile.length() > 2 * 256 * 1024);
+
+        ArrayList<Task> sequentialTasks = new Storage(testFilePath).load();
+        Storage parallelStorage = new Storage(testFilePath);
+        parallelStorage.setParallelLoadEnabled(true);
+        ArrayList<Task> parallelTasks = parallelStorage.load();
+
+        assertEquals(40000, parallelTasks.size());
+        assertEquals(sequentialTasks.size(), parallelTasks.size());
+        for (int i = 0; i < parallelTasks.size(); i++) {
+            assertEquals("task " + i, parallelTasks.get(i).getDescription());
+        }
+    }
+
+    // Tests for crash-safe saves
+    @Test
+    public void save_existingFile_leavesNoTemporaryFile() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        tasks.add(new Todo("task 2"));
+
+        storage.save(tasks);
+
+        assertFalse(new File(storage.getTempPath()).exists());
+        assertEquals(2, new Storage(testFilePath).load().size());
+    }
+
+    @Test
+    public void load_leftoverTemporaryFileWithDataFile_discardsTemporaryFile() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        FileWriter writer = new FileWriter(storage.getTempPath());
+        writer.write("T | 0 | NORMAL | task 1\nT | 0 | NORM");
+        writer.close();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertFalse(new File(storage.getTempPath()).exists());
+    }
+
+    @Test
+    public void load_leftoverTemporaryFileWithoutDataFile_recoversTemporaryFile()
+            throws IOException {
+        byte[] bytes = "T | 0 | NORMAL | task 1\nT | 1 | NORMAL | task 2\n".getBytes();
+        Files.write(Path.of(storage.getTempPath()), bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        File checksumFile = new File(storage.getTempPath() + ".crc");
+        Files.writeString(checksumFile.toPath(),
+                bytes.length + " " + Long.toHexString(crc.getValue()));
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(2, loadedTasks.size());
+        assertTrue(testFile.exists());
+        assertFalse(new File(storage.getTempPath()).exists());
+        assertFalse(checksumFile.exists());
+    }
+
+    @Test
+    public void load_truncatedTemporaryFileWithoutDataFile_discardsTemporaryFile()
+            throws IOException {
+        FileWriter writer = new FileWriter(storage.getTempPath());
+        writer.write("T | 0 | NORMAL | task 1\nT | 1 | NOR");
+        writer.close();
+        writer = new FileWriter(storage.getJournalPath() + ".folded");
+        writer.write("ADD | T | 0 | NORMAL | task 1\n");
+        writer.close();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertFalse(testFile.exists());
+        assertFalse(new File(storage.getTempPath()).exists());
+    }
+
+    @Test
+    public void load_foldedJournalWithoutTemporaryFile_skipsFoldedJournal() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        storage.save(tasks);
+        File foldedFile = new File(storage.getJournalPath() + ".folded");
+        FileWriter writer = new FileWriter(foldedFile);
+        writer.write("ADD | T | 0 | NORMAL | task 2\n");
+        writer.close();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(2, loadedTasks.size());
+        assertFalse(foldedFile.exists());
+    }
+
+    @Test
+    public void load_foldedJournalWithTemporaryFile_restoresJournal() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        FileWriter writer = new FileWriter(storage.getTempPath());
+        writer.write("T | 0 | NORMAL | task 1\nT | 0 | NORMAL | task 2\n");
+        writer.close();
+        File foldedFile = new File(storage.getJournalPath() + ".folded");
+        writer = new FileWriter(foldedFile);
+        writer.write("ADD | T | 0 | NORMAL | task 2\n");
+        writer.close();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("task 2", loadedTasks.get(1).getDescription());
+        assertFalse(foldedFile.exists());
+        assertTrue(new File(storage.getJournalPath()).exists());
+    }
+
+    @Test
+    public void compact_journalWithMutations_leavesNoFoldedJournal() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        storage.setJournalEnabled(true);
+        Todo todo = new Todo("task 2");
+        tasks.add(todo);
+        storage.saveAdd(tasks, todo);
+
+        storage.compact();
+
+        assertFalse(new File(testFilePath + ".journal.compacting.folded").exists());
+        assertEquals(2, new Storage(testFilePath).load().size());
+    }
+
+    // Tests for in-place patching of changed tasks
+    @Test
+    public void saveStatus_loadedTextFile_patchesLineInPlace() throws IOException {
+        FileWriter writer = new FileWriter(testFile);
+        writer.write("T | 0 | NORMAL | task 1\n");
+        writer.write("T | 1 | NORMAL | legacy spacing   \n");
+        writer.write("D | 0 | HIGH | task 3 | Monday\n");
+        writer.close();
+        ArrayList<Task> tasks = storage.load();
+        long length = testFile.length();
+
+        tasks.get(2).setDone(true);
+        storage.saveStatus(tasks, 2);
+
+        assertEquals(length, testFile.length());
+        assertEquals(Arrays.asList("T | 0 | NORMAL | task 1", "T | 1 | NORMAL | legacy spacing   ",
+                "D | 1 | HIGH | task 3 | Monday"), Files.readAllLines(testFile.toPath()));
+    }
+
+    @Test
+    public void savePriority_anyChange_rewritesWholeFile() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        storage.save(tasks);
+
+        tasks.get(0).setPriority(Priority.HIGH);
+        storage.savePriority(tasks, 0);
+        tasks.get(1).setDone(true);
+        storage.saveStatus(tasks, 1);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(Priority.HIGH, loadedTasks.get(0).getPriority());
+        assertFalse(loadedTasks.get(0).isDone());
+        assertTrue(loadedTasks.get(1).isDone());
+    }
+
+    @Test
+    public void saveStatus_fileChangedSinceLoad_rewritesWholeFile() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        storage.save(tasks);
+        FileWriter writer = new FileWriter(testFile, true);
+        writer.write("T | 0 | NORMAL | added elsewhere\n");
+        writer.close();
+
+        tasks.get(0).setDone(true);
+        storage.saveStatus(tasks, 0);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    // Tests for stable task IDs
+    @Test
+    public void save_tasksWithIds_roundTripsIdsInBothFormats() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        todo.setId(12);
+        tasks.add(todo);
+        tasks.add(new Deadline("return book", "Monday"));
+
+        for (StorageFormat format : StorageFormat.values()) {
+            storage.setFormat(format);
+            storage.save(tasks);
+
+            ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+            assertEquals(12, loadedTasks.get(0).getId());
+            assertEquals(Task.NO_ID, loadedTasks.get(1).getId());
+        }
+    }
+
+    @Test
+    public void load_taskWithInvalidId_skipsTask() throws IOException {
+        FileWriter writer = new FileWriter(testFile);
+        writer.write("T#3 | 0 | NORMAL | valid todo\n");
+        writer.write("T#x | 0 | NORMAL | invalid id\n");
+        writer.write("D#0 | 0 | NORMAL | zero id | Monday\n");
+        writer.close();
+
+        ArrayList<Task> tasks = storage.load();
+
+        assertEquals(1, tasks.size());
+        assertEquals(3, tasks.get(0).getId());
+    }
+
+    // Tests for batches of changes
+    @Test
+    public void endBatch_changesDuringBatch_savesOnceAtEnd() throws IOException {
+        storage.setJournalEnabled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        storage.beginBatch();
+
+        Task task = new Todo("batched task");
+        tasks.add(task);
+        storage.saveAdd(tasks, task);
+        task.setDone(true);
+        storage.saveStatus(tasks, 0);
+
+        assertTrue(storage.isBatching());
+        assertFalse(testFile.exists());
+        assertFalse(new File(storage.getJournalPath()).exists());
+
+        storage.endBatch(tasks);
+
+        assertFalse(storage.isBatching());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).load();
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    @Test
+    public void endBatch_noChanges_doesNotWriteFile() throws IOException {
+        storage.beginBatch();
+        storage.endBatch(new ArrayList<>());
+
+        assertFalse(testFile.exists());
+    }
+
+    @Test
+    public void save_withFlightRecording_emitsStorageEvent() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>(Arrays.asList(new Todo("read book"),
+                new Todo("return book")));
+        Path recordingPath = Files.createTempFile("luffy", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("luffy.Storage");
+            recording.start();
+            storage.save(tasks);
+            recording.stop();
+            recording.dump(recordingPath);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+            assertEquals(1, events.size());
+            assertEquals("save", events.get(0).getString("operation"));
+            assertEquals(2, events.get(0).getInt("records"));
+            assertEquals(testFile.length(), events.get(0).getLong("bytes"));
+        } finally {
+            Files.delete(recordingPath);
+        }
+    }
 }
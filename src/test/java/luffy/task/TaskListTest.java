@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class TaskListTest {
     private TaskList taskList;
@@ -61,6 +63,26 @@ public class TaskListTest {
         assertEquals(event, result.get(0));
     }
 
+    @Test
+    public void getTasksOnDate_afterRemoval_returnsTasksInListOrder() {
+        Event longEvent = new Event("long event", testDate1.minusDays(2), testDate1.plusDays(1));
+        Deadline first = new Deadline("first", testDate1);
+        Event sameDayEvent = new Event("same day", testDate1, testDate1.plusHours(1));
+        Event otherLongEvent = new Event("other event", testDate1.minusDays(1), testDate1);
+        Deadline last = new Deadline("last", testDate1);
+        taskList.add(new Todo("todo"));
+        taskList.add(first);
+        taskList.add(longEvent);
+        taskList.add(sameDayEvent);
+        taskList.add(otherLongEvent);
+        taskList.add(last);
+        taskList.remove(0);
+
+        ArrayList<Task> result = taskList.getTasksOnDate(testDate1);
+
+        assertEquals(List.of(first, longEvent, sameDayEvent, otherLongEvent, last), result);
+    }
+
     @Test
     public void getTasksOnDate_eventSpansMultipleDays_returnsEventForAllDays() {
         // Create event spanning 3 days
@@ -124,4 +146,207 @@ public class TaskListTest {
         ArrayList<Task> result = taskList.getTasksOnDate(testDate1);
         assertTrue(result.isEmpty());
     }
+
+    // Tests for stable task IDs
+    @Test
+    public void add_tasksWithoutIds_assignsIncreasingIds() {
+        Todo first = new Todo("first");
+        Todo second = new Todo("second");
+        taskList.add(first);
+        taskList.add(second);
+
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+        assertSame(second, taskList.getById(2));
+    }
+
+    @Test
+    public void constructor_loadedIds_keepsIdsAndReassignsDuplicates() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo kept = new Todo("kept");
+        kept.setId(7);
+        Todo duplicate = new Todo("duplicate");
+        duplicate.setId(7);
+        Todo legacy = new Todo("legacy");
+        tasks.add(kept);
+        tasks.add(duplicate);
+        tasks.add(legacy);
+
+        TaskList list = new TaskList(tasks);
+
+        assertEquals(7, kept.getId());
+        assertEquals(8, duplicate.getId());
+        assertEquals(9, legacy.getId());
+        assertEquals(1, list.indexOfId(8));
+    }
+
+    @Test
+    public void indexOfId_afterRemoval_returnsShiftedPosition() {
+        for (int i = 1; i <= 5; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+
+        taskList.remove(1);
+
+        assertEquals(-1, taskList.indexOfId(2));
+        assertNull(taskList.getById(2));
+        assertEquals(0, taskList.indexOfId(1));
+        assertEquals(3, taskList.indexOfId(5));
+        assertEquals(1, taskList.indexOfId(3));
+        taskList.add(new Todo("task 6"));
+        assertEquals(4, taskList.indexOfId(6));
+    }
+
+    // Tests for the date index
+    @Test
+    public void getTasksOnDate_afterRemovals_returnsRemainingTasksInListOrder() {
+        Event longEvent = new Event("long event", testDate1.minusDays(3), testDate3);
+        Deadline removed = new Deadline("removed", testDate1);
+        Deadline kept = new Deadline("kept", testDate1.plusHours(2));
+        Event removedEvent = new Event("removed event", testDate1.minusDays(1), testDate2);
+        taskList.add(kept);
+        taskList.add(removed);
+        taskList.add(removedEvent);
+        taskList.add(longEvent);
+
+        taskList.remove(2);
+        taskList.remove(1);
+
+        ArrayList<Task> result = taskList.getTasksOnDate(testDate1);
+        assertEquals(2, result.size());
+        assertSame(kept, result.get(0));
+        assertSame(longEvent, result.get(1));
+        assertTrue(taskList.getTasksOnDate(testDate1.minusDays(1)).contains(longEvent));
+        assertTrue(taskList.getTasksOnDate(testDate3.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void getTasksOnDate_loadedTasks_indexesInitialList() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Event("single day", testDate2, testDate2.plusHours(1)));
+        tasks.add(new Deadline("deadline", testDate2));
+        TaskList list = new TaskList(tasks);
+
+        assertEquals(tasks, list.getTasksOnDate(testDate2));
+    }
+
+    // Tests for the keyword index
+    @Test
+    public void find_partialAndMultiWordKeywords_matchesLikeSubstringSearch() {
+        Todo book = new Todo("Read Book");
+        Todo notebook = new Todo("buy notebook, pens");
+        taskList.add(book);
+        taskList.add(notebook);
+        taskList.add(new Todo("return library card"));
+
+        assertEquals(Arrays.asList(book, notebook), taskList.find(new String[] {"OOK"}));
+        assertEquals(Arrays.asList(notebook), taskList.find(new String[] {"book", "k, p"}));
+        assertEquals(Arrays.asList(book), taskList.find(new String[] {"d b"}));
+        assertEquals(3, taskList.find(new String[] {""}).size());
+    }
+
+    @Test
+    public void find_afterRemovalAndDescriptionChange_usesCurrentDescriptions() {
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("write essay"));
+        taskList.add(new Todo("book flights"));
+
+        taskList.remove(0);
+        taskList.setDescription(0, "write book review");
+
+        ArrayList<Task> result = taskList.find(new String[] {"book"});
+        assertEquals(2, result.size());
+        assertEquals("write book review", result.get(0).getDescription());
+        assertEquals("book flights", result.get(1).getDescription());
+        assertTrue(taskList.find(new String[] {"essay"}).isEmpty());
+    }
+
+    @Test
+    public void find_trigramsInWrongOrder_verifiesCandidates() {
+        Todo scrambled = new Todo("abc bcd");
+        Todo match = new Todo("abcd");
+        taskList.add(scrambled);
+        taskList.add(match);
+
+        assertEquals(Arrays.asList(match), taskList.find(new String[] {"ABCD"}));
+        assertEquals(Arrays.asList(scrambled), taskList.find(new String[] {"c b"}));
+    }
+
+    @Test
+    public void find_rareKeywordsInLargeList_returnsMatchesInListOrder() {
+        for (int i = 0; i < 40; i++) {
+            taskList.add(new Todo(i == 5 ? "pack bag" : i == 20 ? "bag check" : "filler " + i));
+        }
+        taskList.setDescription(30, "unpack bag");
+        taskList.setDescription(3, "bag tag");
+        taskList.remove(0);
+
+        List<String> expected = List.of("bag tag", "pack bag", "bag check", "unpack bag");
+        for (String keyword : new String[] {"BAG", "ba"}) {
+            ArrayList<String> descriptions = new ArrayList<>();
+            for (Task task : taskList.find(new String[] {keyword})) {
+                descriptions.add(task.getDescription());
+            }
+            assertEquals(expected, descriptions);
+        }
+        assertEquals(1, taskList.find(new String[] {"bag", "che"}).size());
+        assertEquals(List.of(taskList.get(29)), taskList.find(new String[] {"unpack"}));
+    }
+
+    @Test
+    public void find_pageOfIndexedCandidates_returnsPageInListOrder() {
+        for (int i = 0; i < 80; i++) {
+            taskList.add(new Todo(i % 20 == 0 ? "pack bag " + i : "filler " + i));
+        }
+
+        ArrayList<Task> page = taskList.find(new String[] {"bag"}, 1, 2);
+
+        assertEquals(2, page.size());
+        assertEquals("pack bag 20", page.get(0).getDescription());
+        assertEquals("pack bag 40", page.get(1).getDescription());
+        assertTrue(taskList.find(new String[] {"bag"}, 4, 2).isEmpty());
+        assertTrue(taskList.find(new String[] {"bag"}, 0, 0).isEmpty());
+    }
+
+    @Test
+    public void removeAll_severalIndices_removesThemAndKeepsIdsResolvable() {
+        for (int i = 1; i <= 6; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+
+        ArrayList<Task> removed = taskList.removeAll(new int[] {0, 2, 3});
+
+        assertEquals(3, removed.size());
+        assertEquals("task 1", removed.get(0).getDescription());
+        assertEquals(3, taskList.size());
+        assertEquals("task 2", taskList.get(0).getDescription());
+        assertEquals("task 5", taskList.get(1).getDescription());
+        assertEquals("task 6", taskList.get(2).getDescription());
+        assertEquals(2, taskList.indexOfId(taskList.get(2).getId()));
+        assertEquals(-1, taskList.indexOfId(removed.get(1).getId()));
+        assertTrue(taskList.find(new String[] {"task 3"}).isEmpty());
+    }
+
+    @Test
+    public void constructor_tasksWithoutIds_assignsNewIds() {
+        Task first = new Todo("read book");
+        Task second = new Todo("return book");
+        TaskList tasks = new TaskList(new ArrayList<>(Arrays.asList(first, second)));
+
+        assertTrue(tasks.hasNewIds());
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+    }
+
+    @Test
+    public void constructor_tasksWithDistinctIds_keepsIds() {
+        Task first = new Todo("read book");
+        first.setId(4);
+        Task second = new Todo("return book");
+        second.setId(7);
+        TaskList tasks = new TaskList(new ArrayList<>(Arrays.asList(first, second)));
+
+        assertFalse(tasks.hasNewIds());
+        assertEquals(7, tasks.getById(7).getId());
+    }
 }
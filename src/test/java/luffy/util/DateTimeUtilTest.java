@@ -130,6 +130,45 @@ public class DateTimeUtilTest {
         });
     }
 
+    @Test
+    public void tryParseDateTimeFromFile_isoFormats_matchesParseDateTimeFromFile() {
+        String[] isoStrings = {"2024-12-15T14:30", "2024-12-15T14:30:45",
+            "2024-06-20T18:45:30.123456789", "2024-06-20T18:45:30.5"};
+        for (String isoString : isoStrings) {
+            assertEquals(DateTimeUtil.parseDateTimeFromFile(isoString),
+                    DateTimeUtil.tryParseDateTimeFromFile(isoString, 0, isoString.length()));
+        }
+    }
+
+    @Test
+    public void tryParseDateTimeFromFile_range_parsesOnlyRange() {
+        String line = "D | 0 | NORMAL | report | 2024-12-15T14:30:00";
+        LocalDateTime result = DateTimeUtil.tryParseDateTimeFromFile(line, 26, line.length());
+        assertEquals(LocalDateTime.of(2024, 12, 15, 14, 30), result);
+    }
+
+    @Test
+    public void tryParseDateTimeFromFile_signedYears_roundTrips() {
+        LocalDateTime[] dateTimes = {LocalDateTime.of(10000, 1, 1, 0, 0),
+            LocalDateTime.of(-1, 1, 1, 0, 0)};
+        for (LocalDateTime dateTime : dateTimes) {
+            String formatted = DateTimeUtil.formatDateTimeForFile(dateTime);
+            assertEquals(dateTime,
+                    DateTimeUtil.tryParseDateTimeFromFile(formatted, 0, formatted.length()));
+        }
+        assertNull(DateTimeUtil.tryParseDateTimeFromFile("+10000-13-01T00:00", 0, 18));
+    }
+
+    @Test
+    public void tryParseDateTimeFromFile_invalidInput_returnsNull() {
+        String[] invalidStrings = {"", "Monday", "2024/12/15 14:30:45", "2024-13-15T14:30",
+            "2023-02-29T10:00", "2024-12-15T24:00", "2024-12-15T14:30:4", "2024-12-15 14:30"};
+        for (String invalidString : invalidStrings) {
+            assertNull(DateTimeUtil.tryParseDateTimeFromFile(invalidString, 0,
+                    invalidString.length()));
+        }
+    }
+
     @Test
     public void roundTripConversion_formatAndParse_maintainsDateTime() {
         LocalDateTime original = LocalDateTime.of(2024, 12, 15, 14, 30, 45);